@@ -0,0 +1,64 @@
+package com.footwork.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.util.logging.Logger;
+
+/**
+ * Runs @Scheduled methods on a dedicated pool instead of Spring's default single thread,
+ * so a slow job (streak reset, archive) no longer delays the short cleanups.
+ * The pool gets at least one thread per registered job (app.scheduling.pool-size is only a floor), so a job
+ * sleeping through its jitter or waiting on a lock can never hold up another job's tick.
+ * Overlap protection, jitter, metrics and cluster locking are applied per job by ScheduledJobRunner.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private static final Logger logger = Logger.getLogger(SchedulingConfig.class.getName());
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.scheduling.pool-size:6}")
+    private int poolSize;
+
+    @Value("${app.scheduling.shutdown-await-seconds:30}")
+    private int shutdownAwaitSeconds;
+
+    public SchedulingConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("footwork-scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(shutdownAwaitSeconds);
+        scheduler.setErrorHandler(t -> logger.severe("Scheduled task failed: " + t.getMessage()));
+        scheduler.initialize();
+        meterRegistry.gauge("footwork.scheduler.pool.active", scheduler, ThreadPoolTaskScheduler::getActiveCount);
+        meterRegistry.gauge("footwork.scheduler.pool.size", scheduler, ThreadPoolTaskScheduler::getPoolSize);
+        return scheduler;
+    }
+
+    /**
+     * Called once every @Scheduled method has been registered, so the task lists are complete here
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        ThreadPoolTaskScheduler scheduler = taskScheduler();
+        int jobCount = registrar.getCronTaskList().size() + registrar.getFixedRateTaskList().size()
+            + registrar.getFixedDelayTaskList().size() + registrar.getTriggerTaskList().size();
+        int threads = Math.max(poolSize, jobCount);
+        scheduler.setPoolSize(threads);
+        logger.info("Scheduler pool sized to " + threads + " threads for " + jobCount + " jobs");
+        registrar.setTaskScheduler(scheduler);
+    }
+}
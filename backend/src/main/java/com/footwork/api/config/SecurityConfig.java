@@ -1,8 +1,12 @@
 package com.footwork.api.config;
 
 import com.footwork.api.filter.JwtAuthFilter;
+import com.footwork.api.service.AdaptiveBCryptPasswordEncoder;
+import com.footwork.api.service.BoundedPasswordEncoder;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,12 +17,15 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
@@ -30,6 +37,34 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.password-hash.threads:4}")
+    private int passwordHashThreads;
+
+    @Value("${app.security.password-hash.queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    @Value("${app.security.password-hash.timeout-ms:5000}")
+    private long passwordHashTimeoutMs;
+
+    // 0 = calibrate at startup to bcrypt.target-ms within [min-cost, max-cost]
+    @Value("${app.security.bcrypt.cost:0}")
+    private int bcryptCost;
+
+    @Value("${app.security.bcrypt.target-ms:250}")
+    private long bcryptTargetMs;
+
+    @Value("${app.security.bcrypt.min-cost:10}")
+    private int bcryptMinCost;
+
+    @Value("${app.security.bcrypt.max-cost:16}")
+    private int bcryptMaxCost;
+
     /* 
      * Main security configuration
      * Defines endpoint access rules and JWT filter setup
@@ -72,10 +107,20 @@ public class SecurityConfig {
     /* 
      * Password encoder bean (uses BCrypt hashing)
      * Critical for secure password storage
+     * Hashing runs on a bounded pool so it cannot tie up every request thread
+     * New hashes are stored as {bcrypt}... at the calibrated cost; older unprefixed hashes still match
+     * and are rehashed on the next successful login, as are hashes at any other cost
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int cost = bcryptCost > 0
+            ? bcryptCost
+            : AdaptiveBCryptPasswordEncoder.calibrate(bcryptTargetMs, bcryptMinCost, bcryptMaxCost);
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, passwordHashThreads,
+            passwordHashQueueCapacity, passwordHashTimeoutMs, meterRegistry);
     }
 
     /* 
@@ -87,6 +132,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        // Stores the rehash when upgradeEncoding asks for one after a successful login
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
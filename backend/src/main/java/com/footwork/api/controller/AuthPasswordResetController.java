@@ -2,6 +2,7 @@ package com.footwork.api.controller;
 
 import com.footwork.api.entity.ForgotPasswordRequest;
 import com.footwork.api.entity.ResetPasswordRequest;
+import com.footwork.api.service.BoundedPasswordEncoder;
 import com.footwork.api.service.PasswordResetService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -74,6 +75,9 @@ public class AuthPasswordResetController {
             
             return ResponseEntity.ok("Password reset successful. You can now log in with your new password.");
             
+        } catch (BoundedPasswordEncoder.PasswordHashingBusyException e) {
+            logger.warning("Password reset deferred for " + request.getEmail() + ": hashing pool saturated");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (RuntimeException e) {
             String errorMessage = e.getMessage();
             
@@ -0,0 +1,53 @@
+package com.footwork.api.controller;
+
+import com.footwork.api.entity.LeaderboardRankResponse;
+import com.footwork.api.entity.LeaderboardResponse;
+import com.footwork.api.service.LeaderboardService;
+import com.footwork.api.service.UserInfoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.logging.Logger;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = "*")
+public class LeaderboardController {
+
+    private static final Logger logger = Logger.getLogger(LeaderboardController.class.getName());
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UserInfoService userInfoService;
+
+    /**
+     * Top streaks, globally or for one position (DEFENDER, MIDFIELDER, FORWARD)
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(
+            @RequestParam(required = false) String position,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(position, limit));
+    }
+
+    @GetMapping("/me")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<LeaderboardRankResponse> getMyRank(
+            Authentication authentication,
+            @RequestParam(required = false) String position) {
+        try {
+            // The id comes from the token's claims; no user lookup
+            int userId = userInfoService.getCurrentUserId(authentication);
+            return ResponseEntity.ok(leaderboardService.getRank(userId, position));
+        } catch (Exception e) {
+            logger.warning("Get leaderboard rank error: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.footwork.api.controller;
 
 import com.footwork.api.entity.*;
+import com.footwork.api.service.PlanArchiveService;
 import com.footwork.api.service.PlanGenerationService;
 import com.footwork.api.service.UserInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/plans")
@@ -20,12 +28,14 @@ public class PlanController {
     @Autowired
     private UserInfoService userInfoService;
 
+    @Autowired
+    private PlanArchiveService planArchiveService;
+
     @PostMapping("/generate")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> generateDailyPlan(Authentication authentication) {
         try {
-            String userEmail = authentication.getName();
-            UserInfo user = userInfoService.getUserByEmail(userEmail);
+            UserInfo user = userInfoService.getCurrentUser(authentication);
             
             if (user == null) {
                 return ResponseEntity.badRequest().body("User not found");
@@ -49,8 +59,7 @@ public class PlanController {
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> getCurrentPlan(Authentication authentication) {
         try {
-            String userEmail = authentication.getName();
-            UserInfo user = userInfoService.getUserByEmail(userEmail);
+            UserInfo user = userInfoService.getCurrentUser(authentication);
             
             if (user == null) {
                 return ResponseEntity.badRequest().body("User not found");
@@ -67,13 +76,100 @@ public class PlanController {
         }
     }
 
+    @GetMapping("/history")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getPlanHistory(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            Authentication authentication) {
+        try {
+            UserInfo user = userInfoService.getCurrentUser(authentication);
+
+            if (user == null) {
+                return ResponseEntity.badRequest().body("User not found");
+            }
+
+            // Default to the last 90 days; cap the page size to keep responses bounded
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(90);
+            if (start.isAfter(end)) {
+                return ResponseEntity.badRequest().body("'from' must not be after 'to'");
+            }
+            int pageSize = Math.max(1, Math.min(size, 100));
+
+            PlanHistoryResponse history = planGenerationService.getPlanHistory(user, start, end, Math.max(page, 0), pageSize);
+            return ResponseEntity.ok(history);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error getting plan history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stream the user's archived (cold) plan history as NDJSON, one plan per line
+     */
+    @GetMapping(value = "/archive", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> getArchivedPlans(Authentication authentication) {
+        UserInfo user = userInfoService.getCurrentUser(authentication);
+        int userId = user.getId();
+
+        StreamingResponseBody body = out -> planArchiveService.streamUserArchive(userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @PostMapping("/{planId}/drills/{orderIndex}/swap")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> swapDrill(@PathVariable Long planId,
+                                       @PathVariable Integer orderIndex,
+                                       Authentication authentication) {
+        try {
+            UserInfo user = userInfoService.getCurrentUser(authentication);
+
+            if (user == null) {
+                return ResponseEntity.badRequest().body("User not found");
+            }
+
+            DailyPlanResponse plan = planGenerationService.swapDrill(planId, orderIndex, user);
+            return ResponseEntity.ok(plan);
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body("Access denied: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error swapping drill: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replay completions recorded offline (by plan id or plan date) in one request
+     */
+    @PostMapping("/completions/sync")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> syncCompletions(@Valid @RequestBody CompletionSyncRequest request,
+                                             Authentication authentication) {
+        try {
+            UserInfo user = userInfoService.getCurrentUser(authentication);
+
+            if (user == null) {
+                return ResponseEntity.badRequest().body("User not found");
+            }
+
+            CompletionSyncResponse response = planGenerationService.syncCompletions(user, request.getCompletions());
+            return ResponseEntity.ok(response);
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body("Access denied: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error syncing completions: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/{planId}/complete")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> markPlanCompleted(@PathVariable Long planId,
                                                Authentication authentication) {
         try {
-            String userEmail = authentication.getName();
-            UserInfo user = userInfoService.getUserByEmail(userEmail);
+            UserInfo user = userInfoService.getCurrentUser(authentication);
             
             if (user == null) {
                 return ResponseEntity.badRequest().body("User not found");
@@ -0,0 +1,77 @@
+package com.footwork.api.controller;
+
+import com.footwork.api.entity.DrillSessionEvent;
+import com.footwork.api.entity.SessionEventBatchRequest;
+import com.footwork.api.entity.SessionEventRequest;
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.service.SessionLogService;
+import com.footwork.api.service.UserInfoService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sessions")
+@CrossOrigin(origins = "*")
+public class SessionLogController {
+
+    @Autowired
+    private SessionLogService sessionLogService;
+
+    @Autowired
+    private UserInfoService userInfoService;
+
+    /**
+     * Log a single drill event (started, completed, actual minutes, rating).
+     * Events are written asynchronously, so this returns 202 Accepted.
+     */
+    @PostMapping("/events")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> logEvent(@Valid @RequestBody SessionEventRequest request,
+                                      Authentication authentication) {
+        return record(List.of(request), authentication);
+    }
+
+    /**
+     * Upload a batch of drill events in one request (e.g. when a session ends)
+     */
+    @PostMapping("/events/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> logEvents(@Valid @RequestBody SessionEventBatchRequest request,
+                                       Authentication authentication) {
+        return record(request.getEvents(), authentication);
+    }
+
+    @GetMapping("/plans/{planId}/events")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getPlanEvents(@PathVariable Long planId, Authentication authentication) {
+        try {
+            UserInfo user = userInfoService.getCurrentUser(authentication);
+            List<DrillSessionEvent> events = sessionLogService.getEventsForPlan(user, planId);
+            return ResponseEntity.ok(events);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error getting session events: " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> record(List<SessionEventRequest> events, Authentication authentication) {
+        try {
+            UserInfo user = userInfoService.getCurrentUser(authentication);
+            int accepted = sessionLogService.recordEvents(user, events);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body("Access denied: " + e.getMessage());
+        } catch (SessionLogService.SessionLogBufferFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error logging session events: " + e.getMessage());
+        }
+    }
+}
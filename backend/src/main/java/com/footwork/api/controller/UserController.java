@@ -11,15 +11,22 @@ import com.footwork.api.entity.UserUpdateRequest;
 import com.footwork.api.entity.PasswordUpdateRequest;
 import com.footwork.api.entity.DeleteUserRequest;
 import com.footwork.api.entity.StreakResponse;
+import com.footwork.api.entity.CompletionCalendarResponse;
+import com.footwork.api.entity.StreakSyncJobStatus;
+import com.footwork.api.service.BoundedPasswordEncoder;
 import com.footwork.api.service.JwtService;
 import com.footwork.api.service.TokenRevocationService;
+import com.footwork.api.service.UserInfoDetails;
 import com.footwork.api.service.UserInfoService;
+import com.footwork.api.service.VerifiedToken;
 import com.footwork.api.service.S3StorageService;
 import com.footwork.api.service.EmailVerificationService;
+import com.footwork.api.service.StreakSyncJobService;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -68,6 +75,9 @@ public class UserController {
     @Autowired
     private EmailVerificationService emailVerificationService;
 
+    @Autowired
+    private StreakSyncJobService streakSyncJobService;
+
     @GetMapping("/auth/welcome")
     public String welcome() {
         return "Welcome this endpoint is not secure";
@@ -78,7 +88,7 @@ public class UserController {
     public ResponseEntity<UserProfileResponse> uploadProfilePicture(@RequestParam("file") MultipartFile file) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
 
             if (file == null || file.isEmpty()) {
                 logger.warning("Profile picture upload: missing file");
@@ -103,14 +113,13 @@ public class UserController {
             }
 
             // If there is an existing object key, delete it (reupload flow)
-            UserInfo existing = service.getUserByEmail(email);
-            if (existing.getProfileImageUrl() != null && !existing.getProfileImageUrl().isEmpty()) {
-                s3StorageService.deleteObject(existing.getProfileImageUrl());
+            if (user.getProfileImageUrl() != null && !user.getProfileImageUrl().isEmpty()) {
+                s3StorageService.deleteObject(user.getProfileImageUrl());
             }
 
-            String objectKey = s3StorageService.uploadProfileImage(file.getBytes(), contentType, email);
+            String objectKey = s3StorageService.uploadProfileImage(file.getBytes(), contentType, user.getEmail());
 
-            UserInfo updated = service.updateProfileImage(email, objectKey);
+            UserInfo updated = service.updateProfileImage(user, objectKey);
             // Return a short-lived presigned URL for display
             String presigned = s3StorageService.generatePresignedGetUrl(objectKey, java.time.Duration.ofMinutes(15));
             UserProfileResponse resp = service.toUserProfileResponse(updated);
@@ -149,6 +158,8 @@ public class UserController {
             String result = service.addUser(userInfo);
             return ResponseEntity.ok(result);
             
+        } catch (BoundedPasswordEncoder.PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             logger.severe("Registration failed: " + e.getMessage());
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
@@ -161,7 +172,10 @@ public class UserController {
             new UsernamePasswordAuthenticationToken(authRequest.getEmail(), authRequest.getPassword())
         );
         if (authentication.isAuthenticated()) {
-            String accessToken = jwtService.generateToken(authRequest.getEmail());
+            UserInfoDetails userDetails = authentication.getPrincipal() instanceof UserInfoDetails details
+                ? details
+                : service.loadUserByUsername(authRequest.getEmail());
+            String accessToken = jwtService.generateToken(userDetails);
             String refreshToken = jwtService.generateRefreshToken(authRequest.getEmail());
             return new AuthResponse(accessToken, refreshToken, "Login successful");
         } else {
@@ -182,14 +196,16 @@ public class UserController {
         String token = refreshToken.substring(7);
         
         try {
+            VerifiedToken verifiedToken = jwtService.verify(token);
+            
             // First check if this is actually a refresh token
-            if (!jwtService.isRefreshToken(token)) {
+            if (!verifiedToken.isRefreshToken()) {
                 logger.warning("Refresh attempted with non-refresh token");
                 throw new UsernameNotFoundException("Only refresh tokens are accepted for refresh");
             }
             
             // Check if token is revoked
-            boolean isRevoked = tokenRevocationService.isTokenRevoked(token);
+            boolean isRevoked = tokenRevocationService.isTokenRevoked(verifiedToken);
             logger.info("Token revoked check: " + isRevoked);
             
             if (isRevoked) {
@@ -197,18 +213,18 @@ public class UserController {
                 throw new UsernameNotFoundException("Token has been revoked!");
             }
             
-            String email = jwtService.extractUsername(token);
+            String email = verifiedToken.getSubject();
             logger.info("Extracted email: " + email);
             
             if (email != null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                if (jwtService.validateToken(token, userDetails)) {
+                UserInfoDetails userDetails = service.loadUserByUsername(email);
+                if (jwtService.validateToken(verifiedToken, userDetails)) {
                     // Revoke the old refresh token
-                    tokenRevocationService.revokeToken(token);
+                    tokenRevocationService.revokeToken(verifiedToken);
                     logger.info("Old refresh token revoked");
                     
                     // Generate new tokens
-                    String newAccessToken = jwtService.generateToken(email);
+                    String newAccessToken = jwtService.generateToken(userDetails);
                     String newRefreshToken = jwtService.generateRefreshToken(email);
                     logger.info("Token refresh successful for: " + email);
                     return new AuthResponse(newAccessToken, newRefreshToken, "Token refreshed successfully");
@@ -237,28 +253,28 @@ public class UserController {
         
         try {
             // Extract email from token (works for both access and refresh tokens)
-            String email = jwtService.extractUsername(token);
+            VerifiedToken verifiedToken = jwtService.verify(token);
+            String email = verifiedToken.getSubject();
             if (email == null) {
                 logger.warning("Invalid token: could not extract email");
                 return ResponseEntity.badRequest().body("Invalid token");
             }
             
             // Check if token is expired
-            Date expiration = jwtService.extractExpiration(token);
-            if (expiration.before(new Date())) {
+            if (verifiedToken.isExpired()) {
                 logger.warning("Token expired for user: " + email);
                 return ResponseEntity.badRequest().body("Token expired");
             }
             
             // Load user details to validate the token
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            if (!jwtService.validateToken(token, userDetails)) {
+            if (!jwtService.validateToken(verifiedToken, userDetails)) {
                 logger.warning("Invalid token: validation failed for user: " + email);
                 return ResponseEntity.badRequest().body("Invalid token");
             }
             
             // Check if token is already revoked
-            if (tokenRevocationService.isTokenRevoked(token)) {
+            if (tokenRevocationService.isTokenRevoked(verifiedToken)) {
                 logger.info("Token already revoked for user: " + email);
                 return ResponseEntity.ok("Logout successful");
             }
@@ -284,11 +300,11 @@ public class UserController {
     public ResponseEntity<String> logoutAccessToken(HttpServletRequest request) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
             // Revoke ALL tokens for this user to ensure complete logout
-            tokenRevocationService.revokeAllUserTokensOnLogout(email);
-            logger.info("All tokens revoked successfully for user: " + email);
+            tokenRevocationService.revokeAllUserTokensOnLogout(user.getEmail());
+            logger.info("All tokens revoked successfully for user: " + user.getEmail());
             
             return ResponseEntity.ok("Logout successful - Access token revoked");
             
@@ -327,14 +343,14 @@ public class UserController {
     public ResponseEntity<Map<String, Object>> getTokenStatus() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
             Map<String, Object> status = new HashMap<>();
-            status.put("userEmail", email);
-            status.put("activeTokens", tokenRevocationService.getActiveTokenCountForUser(email));
-            status.put("revokedTokens", tokenRevocationService.getRevokedTokenCountForUser(email));
-            status.put("totalTrackedTokens", tokenRevocationService.getActiveTokenCountForUser(email) + 
-                                      tokenRevocationService.getRevokedTokenCountForUser(email));
+            // Individual tokens are no longer tracked; report the generation new tokens are issued at instead
+            long generation = tokenRevocationService.getTokenGeneration(user.getEmail());
+            status.put("userEmail", user.getEmail());
+            status.put("tokenGeneration", generation);
+            status.put("tokensRevokedBefore", generation > 0 ? new Date(generation) : null);
             
             return ResponseEntity.ok(status);
             
@@ -345,23 +361,22 @@ public class UserController {
     }
 
     /**
-     * Admin endpoint to manually sync all user streaks
-     * This ensures database values match calculated values
+     * Admin endpoint to sync all user streaks
+     * Starts a background job and returns its id immediately; poll the status endpoint for progress
      */
     @PostMapping("/admin/sync-streaks")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> syncAllStreaks() {
+    public ResponseEntity<?> syncAllStreaks() {
         try {
-            int updatedCount = service.syncAllUserStreaks();
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("message", "Streak sync completed successfully");
-            result.put("usersUpdated", updatedCount);
-            
-            return ResponseEntity.ok(result);
-            
+            StreakSyncJobStatus status = streakSyncJobService.start();
+            return ResponseEntity.accepted().body(status);
+        } catch (StreakSyncJobService.JobAlreadyRunningException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            error.put("jobId", e.getJobId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
-            logger.warning("Error during streak sync: " + e.getMessage());
+            logger.warning("Error starting streak sync: " + e.getMessage());
             
             Map<String, Object> error = new HashMap<>();
             error.put("error", "Streak sync failed: " + e.getMessage());
@@ -370,14 +385,21 @@ public class UserController {
         }
     }
 
+    @GetMapping("/admin/sync-streaks/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreakSyncJobStatus> getStreakSyncStatus(@PathVariable String jobId) {
+        StreakSyncJobStatus status = streakSyncJobService.getStatus(jobId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
     @PostMapping("/user/profile")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ProfileSetupResponse> setupProfile(@RequestBody ProfileSetupRequest request) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
-            UserInfo updatedUser = service.setupProfile(email, request);
+            UserInfo updatedUser = service.setupProfile(user, request);
             UserProfileResponse safeUser = service.toUserProfileResponse(updatedUser);
             return ResponseEntity.ok(new ProfileSetupResponse(
                 "Profile setup completed successfully", 
@@ -398,9 +420,8 @@ public class UserController {
     public ResponseEntity<UserProfileResponse> getProfile() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
-            UserInfo user = service.getUserByEmail(email);
             UserProfileResponse safeUser = service.toUserProfileResponse(user);
             // If a stored object key exists, return a presigned URL for the client
             if (safeUser.getProfileImageUrl() != null && !safeUser.getProfileImageUrl().isEmpty()) {
@@ -419,9 +440,9 @@ public class UserController {
     public ResponseEntity<?> updateUser(@RequestBody UserUpdateRequest request) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
-            UserInfo updatedUser = service.updateUser(email, request);
+            UserInfo updatedUser = service.updateUser(user, request);
             
             // Check if email was changed
             if (updatedUser.isEmailChanged()) {
@@ -449,10 +470,12 @@ public class UserController {
     public ResponseEntity<String> updatePassword(@RequestBody PasswordUpdateRequest request) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
-            service.updatePassword(email, request);
+            service.updatePassword(user, request);
             return ResponseEntity.ok("Password updated successfully");
+        } catch (BoundedPasswordEncoder.PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             logger.warning("Update password error: " + e.getMessage());
             return ResponseEntity.badRequest().body("Password update failed: " + e.getMessage());
@@ -464,10 +487,12 @@ public class UserController {
     public ResponseEntity<String> deleteUser(@RequestBody DeleteUserRequest request) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
+            UserInfo user = service.getCurrentUser(authentication);
             
-            service.deleteUser(email, request);
+            service.deleteUser(user, request);
             return ResponseEntity.ok("User deleted successfully");
+        } catch (BoundedPasswordEncoder.PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         } catch (Exception e) {
             logger.warning("Delete user error: " + e.getMessage());
             return ResponseEntity.badRequest().body("User deletion failed: " + e.getMessage());
@@ -479,15 +504,10 @@ public class UserController {
     public ResponseEntity<StreakResponse> getUserStreak() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            
-            UserInfo user = service.getUserByEmail(email);
-            if (user == null) {
-                return ResponseEntity.badRequest().build();
-            }
+            UserInfo user = service.getCurrentUser(authentication);
             
             StreakResponse response = new StreakResponse();
-            // Use the new method that properly accounts for missed days
+            // Derived at read time; accounts for missed days without touching the database
             int currentStreak = service.getCurrentStreak(user);
             response.setStreak(currentStreak);
             response.setMessage("Current streak: " + currentStreak + " days");
@@ -499,6 +519,20 @@ public class UserController {
         }
     }
 
+    @GetMapping("/user/calendar")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CompletionCalendarResponse> getCompletionCalendar(@RequestParam(required = false) Integer year) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            UserInfo user = service.getCurrentUser(authentication);
+            
+            return ResponseEntity.ok(service.getCompletionCalendar(user, year));
+        } catch (Exception e) {
+            logger.warning("Get calendar error: " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Manual endpoint to trigger streak check (for testing purposes)
      * This will check and reset broken streaks for all users
@@ -507,8 +541,8 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> checkStreaks() {
         try {
-            service.checkAndResetBrokenStreaks();
-            return ResponseEntity.ok("Streak check completed successfully");
+            int resetCount = service.checkAndResetBrokenStreaks();
+            return ResponseEntity.ok("Streak check completed successfully: " + resetCount + " streaks reset");
         } catch (Exception e) {
             logger.warning("Streak check error: " + e.getMessage());
             return ResponseEntity.badRequest().body("Streak check failed: " + e.getMessage());
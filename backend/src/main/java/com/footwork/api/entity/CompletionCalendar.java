@@ -0,0 +1,35 @@
+package com.footwork.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per user per year: a 366-bit map of completed days (bit n = day-of-year n + 1).
+ * Bits are set in place by CompletionCalendarRepository.markDay; the row is only read here.
+ */
+@Entity
+@Table(name = "completion_calendars", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_completion_calendars_user_year", columnNames = {"user_id", "calendar_year"})
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompletionCalendar {
+    public static final int BYTES = 46; // 366 bits rounded up to whole bytes
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "calendar_year", nullable = false)
+    private Integer calendarYear;
+
+    // Postgres bit numbering within bytea (byte n / 8, bit n % 8 from the right) matches BitSet.valueOf
+    @Column(name = "days", nullable = false, columnDefinition = "bytea")
+    private byte[] days;
+}
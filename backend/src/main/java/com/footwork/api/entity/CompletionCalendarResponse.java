@@ -0,0 +1,17 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompletionCalendarResponse {
+    private int year;
+    private List<String> completedDates;
+    private int totalCompleted;
+    private int currentStreak;
+    private int longestStreak;
+}
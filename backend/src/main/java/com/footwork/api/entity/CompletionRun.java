@@ -0,0 +1,17 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * A run of consecutive completed days, both ends inclusive
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompletionRun {
+    private LocalDate start;
+    private LocalDate end;
+}
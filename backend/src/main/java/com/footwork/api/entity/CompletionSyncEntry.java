@@ -0,0 +1,26 @@
+package com.footwork.api.entity;
+
+import jakarta.validation.constraints.AssertTrue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompletionSyncEntry {
+    // Either planId or planDate identifies the plan
+    private Long planId;
+    private LocalDate planDate;
+
+    // When the plan was completed on the device. Informational only: the streak credits the plan's date
+    private LocalDateTime completedAt;
+
+    @AssertTrue(message = "Each completion needs a planId or a planDate")
+    public boolean isIdentified() {
+        return planId != null || planDate != null;
+    }
+}
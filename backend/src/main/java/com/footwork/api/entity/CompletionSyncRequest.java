@@ -0,0 +1,20 @@
+package com.footwork.api.entity;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompletionSyncRequest {
+
+    @NotEmpty(message = "At least one completion is required")
+    @Size(max = 100, message = "At most 100 completions can be synced at once")
+    private List<@Valid CompletionSyncEntry> completions;
+}
@@ -0,0 +1,17 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompletionSyncResponse {
+    private int plansCompleted;
+    private List<String> unmatchedDates; // Dates that had no plan for this user
+    private Integer streak;
+    private String lastCompletedDate;
+}
@@ -4,11 +4,14 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "daily_plans")
+@Table(name = "daily_plans", indexes = {
+    @Index(name = "idx_daily_plans_user_date", columnList = "user_id, plan_date")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,5 +32,6 @@ public class DailyPlan {
     private boolean completed = false;
 
     @OneToMany(mappedBy = "dailyPlan", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @BatchSize(size = 50) // Load drills for a page of history plans in a few queries instead of one per plan
     private List<PlanDrill> planDrills;
 } 
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.footwork.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only log of per-drill session events.
+ * Rows are written in JDBC batches by SessionLogService and never updated.
+ */
+@Entity
+@Table(name = "drill_session_events", indexes = {
+    @Index(name = "idx_session_events_user_occurred", columnList = "user_id, occurred_at"),
+    @Index(name = "idx_session_events_plan", columnList = "daily_plan_id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DrillSessionEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "daily_plan_id", nullable = false)
+    private Long dailyPlanId;
+
+    @Column(name = "drill_id")
+    private Long drillId;
+
+    @Column(name = "order_index")
+    private Integer orderIndex;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType; // STARTED, COMPLETED
+
+    @Column(name = "actual_minutes")
+    private Integer actualMinutes;
+
+    @Column(name = "rating")
+    private Integer rating; // 1-5
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,15 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntry {
+    private int rank;
+    private int userId;
+    private String name;
+    private int streak;
+}
@@ -0,0 +1,15 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardRankResponse {
+    private String position; // null for the global board
+    private Integer rank; // null when the user has no active streak
+    private int streak;
+    private int totalRanked;
+}
@@ -0,0 +1,15 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardResponse {
+    private String position; // null for the global board
+    private int totalRanked;
+    private List<LeaderboardEntry> entries;
+}
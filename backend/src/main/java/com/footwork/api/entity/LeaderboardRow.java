@@ -0,0 +1,23 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * The columns the streak leaderboard keeps per user; loaded by a JPQL constructor expression.
+ * Held in sorted sets, so instances are replaced rather than modified once ranked.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardRow {
+    private Integer userId;
+    private String name;
+    private String position;
+    private String timezone;
+    private Integer streak;
+    private LocalDate lastCompletedDate;
+}
@@ -0,0 +1,17 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanArchiveDrillRecord {
+    private Long drillId;
+    private String drillName;
+    private String drillType;
+    private String section;
+    private Integer orderIndex;
+    private Integer duration;
+}
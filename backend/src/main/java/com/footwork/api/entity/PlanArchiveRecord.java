@@ -0,0 +1,24 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One line of an archived plan history file (gzip NDJSON)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanArchiveRecord {
+    private Long planId;
+    private Integer userId;
+    private LocalDate planDate;
+    private String userLevel;
+    private String position;
+    private Integer sessionDuration;
+    private boolean completed;
+    private List<PlanArchiveDrillRecord> drills;
+}
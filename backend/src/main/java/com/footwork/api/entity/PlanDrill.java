@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDate;
 
 @Entity
-@Table(name = "plan_drills")
+@Table(name = "plan_drills", indexes = {
+    @Index(name = "idx_plan_drills_daily_plan", columnList = "daily_plan_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,8 +18,10 @@ public class PlanDrill {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // The FK is declared as (daily_plan_id, plan_date) in db/plan-history-partitioning.sql,
+    // since partitioned daily_plans has no unique constraint on id alone
     @ManyToOne
-    @JoinColumn(name = "daily_plan_id")
+    @JoinColumn(name = "daily_plan_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private DailyPlan dailyPlan;
 
     @ManyToOne
@@ -27,4 +32,7 @@ public class PlanDrill {
     private Integer orderIndex; // Order in the plan
     private Integer duration; // Duration for this drill in minutes
     private String section; // WARM_UP, CORE, COOLDOWN, FITNESS
+
+    @Column(name = "plan_date")
+    private LocalDate planDate; // Copied from the parent plan; partition key for plan_drills
 } 
\ No newline at end of file
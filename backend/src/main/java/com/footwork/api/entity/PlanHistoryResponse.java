@@ -0,0 +1,17 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlanHistoryResponse {
+    private List<DailyPlanResponse> plans;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
@@ -3,6 +3,7 @@ package com.footwork.api.entity;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,4 +25,8 @@ public class ProfileSetupRequest {
     @Pattern(regexp = "^(DEFENDER|MIDFIELDER|FORWARD)$", 
              message = "Primary position must be DEFENDER, MIDFIELDER, or FORWARD")
     private String primaryPosition;
+    
+    // IANA zone id, e.g. Europe/London; checked with ZoneId when saved
+    @Size(max = 64, message = "Timezone must be at most 64 characters")
+    private String timezone;
 } 
\ No newline at end of file
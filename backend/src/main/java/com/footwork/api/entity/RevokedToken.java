@@ -0,0 +1,33 @@
+package com.footwork.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A single revoked token, kept until the token itself expires.
+ * token_id is the jti (or the raw token for tokens issued before jti existed).
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_revoked_tokens_user_email", columnList = "user_email")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id", length = 1024)
+    private String tokenId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,31 @@
+package com.footwork.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One claimed tick of a clustered scheduled job. The unique (job_name, tick) pair is what makes a tick run on
+ * exactly one node; rows are only written and pruned by ScheduledJobLockService.
+ */
+@Entity
+@Table(name = "scheduled_job_runs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_scheduled_job_runs_job_tick", columnNames = {"job_name", "tick"})
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduledJobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    // Epoch millis of the minute the tick was scheduled for
+    @Column(name = "tick", nullable = false)
+    private Long tick;
+}
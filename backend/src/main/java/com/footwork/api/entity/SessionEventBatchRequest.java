@@ -0,0 +1,20 @@
+package com.footwork.api.entity;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionEventBatchRequest {
+
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = 500, message = "At most 500 events can be uploaded at once")
+    private List<@Valid SessionEventRequest> events;
+}
@@ -0,0 +1,40 @@
+package com.footwork.api.entity;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SessionEventRequest {
+
+    @NotNull(message = "Plan ID is required")
+    private Long planId;
+
+    private Long drillId;
+
+    private Integer orderIndex;
+
+    @NotBlank(message = "Event type is required")
+    @Pattern(regexp = "^(STARTED|COMPLETED)$", message = "Event type must be STARTED or COMPLETED")
+    private String eventType;
+
+    @Min(value = 0, message = "Actual minutes cannot be negative")
+    @Max(value = 600, message = "Actual minutes must be at most 600")
+    private Integer actualMinutes;
+
+    @Min(value = 1, message = "Rating must be between 1 and 5")
+    @Max(value = 5, message = "Rating must be between 1 and 5")
+    private Integer rating;
+
+    // When the event happened on the device; defaults to the time it was received
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,27 @@
+package com.footwork.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Per zone, the last local cutoff whose streak reset committed. Shared by every node, so whichever runs
+ * the next tick knows which zones are already done. Rows are only written by StreakResetCutoffRepository.advance.
+ */
+@Entity
+@Table(name = "streak_reset_cutoffs")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StreakResetCutoff {
+
+    @Id
+    @Column(name = "zone_id")
+    private String zoneId;
+
+    @Column(name = "cutoff", nullable = false)
+    private LocalDate cutoff;
+}
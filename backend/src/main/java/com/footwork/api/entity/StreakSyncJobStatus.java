@@ -0,0 +1,21 @@
+package com.footwork.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StreakSyncJobStatus {
+    private String jobId;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private String startedAt;
+    private String finishedAt;
+    private long totalUsers; // Users holding a streak when the job started
+    private long processedUsers;
+    private long resetUsers;
+    private double usersPerSecond;
+    private Long etaSeconds; // null once finished or before any progress
+    private String error;
+}
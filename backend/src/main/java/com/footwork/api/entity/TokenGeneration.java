@@ -0,0 +1,27 @@
+package com.footwork.api.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's current token generation: epoch millis of their last revoke-all.
+ * Tokens whose gen claim is lower are rejected. Rows are only written by TokenGenerationRepository.advance.
+ */
+@Entity
+@Table(name = "token_generations", indexes = {
+    @Index(name = "idx_token_generations_generation", columnList = "generation")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenGeneration {
+
+    @Id
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "generation", nullable = false)
+    private Long generation;
+}
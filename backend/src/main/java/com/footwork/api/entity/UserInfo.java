@@ -11,10 +11,15 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 
 @Entity
+@jakarta.persistence.Table(name = "user_info", indexes = {
+    @jakarta.persistence.Index(name = "idx_user_info_timezone_last_completed", columnList = "timezone, last_completed_date")
+})
+@DynamicUpdate // Profile writes only touch changed columns, never the atomically-updated streak columns
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -52,6 +57,10 @@ public class UserInfo {
   // Streak tracking
   private Integer streak = 0;
   private LocalDate lastCompletedDate;
+
+  // IANA zone id (e.g. America/New_York); streak days roll over at the user's local midnight
+  @jakarta.persistence.Column(length = 64, columnDefinition = "varchar(64) default 'UTC'")
+  private String timezone = "UTC";
   
   // Transient field to track email changes during updates
   @jakarta.persistence.Transient
@@ -63,4 +72,13 @@ public class UserInfo {
   
   @jakarta.persistence.Column(name = "email_verified_at")
   private LocalDate emailVerifiedAt;
+
+  // Bumped when roles, email or password (via reset) change; access tokens carry the value they were issued with
+  @jakarta.persistence.Column(nullable = false, columnDefinition = "integer default 0")
+  private int securityVersion;
+
+  // Optimistic locking for profile writes; streak SQL updates bump it too
+  @jakarta.persistence.Version
+  @jakarta.persistence.Column(nullable = false, columnDefinition = "bigint default 0")
+  private long version;
 }
\ No newline at end of file
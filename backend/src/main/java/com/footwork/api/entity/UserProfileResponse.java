@@ -19,6 +19,7 @@ public class UserProfileResponse {
     private String profileImageUrl;
     private Integer streak;
     private String lastCompletedDate;
+    private String timezone;
     private boolean emailVerified;
     private String emailVerifiedAt;
 } 
\ No newline at end of file
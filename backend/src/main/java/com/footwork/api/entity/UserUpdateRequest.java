@@ -30,4 +30,8 @@ public class UserUpdateRequest {
     @Pattern(regexp = "^(DEFENDER|MIDFIELDER|FORWARD)$", 
              message = "Primary position must be DEFENDER, MIDFIELDER, or FORWARD")
     private String primaryPosition;
+    
+    // IANA zone id, e.g. Europe/London; checked with ZoneId when saved
+    @Size(max = 64, message = "Timezone must be at most 64 characters")
+    private String timezone;
 } 
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.footwork.api.filter;
 
+import com.footwork.api.service.JwtPrincipal;
 import com.footwork.api.service.JwtService;
+import com.footwork.api.service.VerifiedToken;
+import com.footwork.api.service.VerifiedTokenCache;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,6 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,16 +21,22 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.logging.Logger;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = Logger.getLogger(JwtAuthFilter.class.getName());
+
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     private ApplicationContext applicationContext;
 
     @Autowired
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService, VerifiedTokenCache verifiedTokenCache) {
         this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -40,34 +50,43 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         
         String authHeader = request.getHeader("Authorization");
-        String token = null;
+        VerifiedToken verifiedToken = null;
         String email = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+            String token = authHeader.substring(7);
             
             try {
+                // Repeat calls with the same token skip the signature check; otherwise verify once for the whole request
+                verifiedToken = verifiedTokenCache.get(token);
+                if (verifiedToken == null) {
+                    verifiedToken = jwtService.verify(token);
+                    if (verifiedToken.isAccessToken()) {
+                        verifiedTokenCache.put(verifiedToken);
+                    }
+                }
+                
                 // Check if this is an access token (not a refresh token)
-                if (jwtService.isRefreshToken(token)) {
-                    System.out.println("JWT Filter - Rejected refresh token for API access: " + requestURI);
+                if (verifiedToken.isRefreshToken()) {
+                    logger.warning("JWT Filter - Rejected refresh token for API access: " + requestURI);
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("Access tokens only. Refresh tokens cannot be used for API access.");
                     return;
                 }
                 
                 // Check if this is actually an access token
-                if (!jwtService.isAccessToken(token)) {
-                    System.out.println("JWT Filter - Rejected invalid token type for API access: " + requestURI);
+                if (!verifiedToken.isAccessToken()) {
+                    logger.warning("JWT Filter - Rejected invalid token type for API access: " + requestURI);
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("Invalid token type. Only access tokens are accepted for API access.");
                     return;
                 }
                 
-                email = jwtService.extractUsername(token);
-                System.out.println("JWT Filter - Request: " + requestURI + ", Email: " + email);
+                email = verifiedToken.getSubject();
+                logger.fine("JWT Filter - Request: " + requestURI + ", Email: " + email);
                 
             } catch (Exception e) {
-                System.out.println("JWT Filter - Token parsing error: " + e.getMessage());
+                logger.warning("JWT Filter - Token parsing error: " + e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Invalid token format");
                 return;
@@ -76,33 +95,51 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                // Get UserDetailsService from Spring context when needed
-                UserDetailsService userDetailsService = applicationContext.getBean(UserDetailsService.class);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                System.out.println("JWT Filter - User authorities: " + userDetails.getAuthorities());
-                
-                if (jwtService.validateToken(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    System.out.println("JWT Filter - Authentication set successfully");
+                if (verifiedToken.getUserId() != null) {
+                    // Token carries id and roles: build the principal from the claims, no database access
+                    if (jwtService.isUsable(verifiedToken)) {
+                        JwtPrincipal principal = JwtPrincipal.from(verifiedToken);
+                        authenticate(principal, principal.getAuthorities(), request);
+                    } else {
+                        // Revoked, e.g. by logout or account deletion
+                        logger.warning("JWT Filter - Token validation failed");
+                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                        response.getWriter().write("Token is no longer valid");
+                        return;
+                    }
                 } else {
-                    System.out.println("JWT Filter - Token validation failed");
+                    // Tokens issued before the claims existed: look the user up as before
+                    UserDetailsService userDetailsService = applicationContext.getBean(UserDetailsService.class);
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                    logger.fine("JWT Filter - User authorities: " + userDetails.getAuthorities());
+                    
+                    if (jwtService.validateToken(verifiedToken, userDetails)) {
+                        authenticate(userDetails, userDetails.getAuthorities(), request);
+                    } else {
+                        logger.warning("JWT Filter - Token validation failed");
+                    }
                 }
             } catch (Exception e) {
-                System.out.println("JWT Filter - Error: " + e.getMessage());
+                logger.warning("JWT Filter - Error: " + e.getMessage());
             }
         } else if (email == null) {
-            System.out.println("JWT Filter - No email extracted from token");
+            logger.fine("JWT Filter - No email extracted from token");
         } else {
-            System.out.println("JWT Filter - Authentication already exists");
+            logger.fine("JWT Filter - Authentication already exists");
         }
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(Object principal, Collection<? extends GrantedAuthority> authorities, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        logger.fine("JWT Filter - Authentication set successfully");
+    }
+
     @Autowired
     public void setApplicationContext(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
@@ -0,0 +1,30 @@
+package com.footwork.api.repository;
+
+import com.footwork.api.entity.CompletionCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CompletionCalendarRepository extends JpaRepository<CompletionCalendar, Long> {
+    List<CompletionCalendar> findByUserIdOrderByCalendarYearAsc(Integer userId);
+
+    /**
+     * Set one day's bit, creating the year's row on first use. Idempotent, and concurrent
+     * completions for the same user serialize on the row instead of overwriting each other.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO completion_calendars (user_id, calendar_year, days) " +
+        "VALUES (:userId, :year, set_bit(decode(repeat('00', 46), 'hex'), :bit, 1)) " +
+        "ON CONFLICT (user_id, calendar_year) DO UPDATE " +
+        "SET days = set_bit(completion_calendars.days, :bit, 1)", nativeQuery = true)
+    int markDay(@Param("userId") int userId, @Param("year") int year, @Param("bit") int bit);
+
+    @Modifying
+    @Query("DELETE FROM CompletionCalendar c WHERE c.userId = :userId")
+    int deleteByUserId(@Param("userId") Integer userId);
+}
@@ -2,9 +2,15 @@ package com.footwork.api.repository;
 
 import com.footwork.api.entity.DailyPlan;
 import com.footwork.api.entity.UserInfo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +19,39 @@ public interface DailyPlanRepository extends JpaRepository<DailyPlan, Long> {
     List<DailyPlan> findByUserOrderByPlanDateDesc(UserInfo user);
     Optional<DailyPlan> findByUserAndPlanDate(UserInfo user, LocalDate planDate);
     List<DailyPlan> findByUserAndPlanDateBetween(UserInfo user, LocalDate startDate, LocalDate endDate);
+    Page<DailyPlan> findByUserAndPlanDateBetween(UserInfo user, LocalDate startDate, LocalDate endDate, Pageable pageable);
+
+    // Ownership check for a set of plans in one query
+    @Query("SELECT dp.id FROM DailyPlan dp WHERE dp.user = :user AND dp.id IN :ids")
+    List<Long> findIdsByUserAndIdIn(@Param("user") UserInfo user, @Param("ids") Collection<Long> ids);
+
+    // Resolves an offline sync batch (by id or by date) for one user in a single query
+    @Query("SELECT dp FROM DailyPlan dp WHERE dp.user = :user AND (dp.id IN :ids OR dp.planDate IN :dates)")
+    List<DailyPlan> findByUserAndIdInOrPlanDateIn(@Param("user") UserInfo user,
+                                                  @Param("ids") Collection<Long> ids,
+                                                  @Param("dates") Collection<LocalDate> dates);
+
+    @Modifying
+    @Query("UPDATE DailyPlan dp SET dp.completed = true WHERE dp.id IN :ids AND dp.completed = false")
+    int markCompleted(@Param("ids") Collection<Long> ids);
+
+    // Ownership-checked completion of a single plan
+    @Modifying
+    @Query("UPDATE DailyPlan dp SET dp.completed = true WHERE dp.id = :id AND dp.user = :user")
+    int markCompletedForUser(@Param("id") Long id, @Param("user") UserInfo user);
+
+    // Keyset-paginated scan used by the cold archiver
+    List<DailyPlan> findByPlanDateBeforeAndIdGreaterThanOrderByIdAsc(LocalDate cutoff, Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM DailyPlan dp WHERE dp.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM DailyPlan dp WHERE dp.user = :user")
+    int deleteAllByUser(@Param("user") UserInfo user);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DailyPlan dp SET dp.sessionDuration = COALESCE(dp.sessionDuration, 0) + :delta WHERE dp.id = :id")
+    int adjustSessionDuration(@Param("id") Long id, @Param("delta") int delta);
 } 
\ No newline at end of file
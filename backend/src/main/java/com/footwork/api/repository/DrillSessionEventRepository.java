@@ -0,0 +1,23 @@
+package com.footwork.api.repository;
+
+import com.footwork.api.entity.DrillSessionEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DrillSessionEventRepository extends JpaRepository<DrillSessionEvent, Long> {
+    List<DrillSessionEvent> findByUserIdAndDailyPlanIdOrderByOccurredAtAsc(Integer userId, Long dailyPlanId);
+
+    @Modifying
+    @Query("DELETE FROM DrillSessionEvent e WHERE e.userId = :userId")
+    int deleteByUserId(@Param("userId") Integer userId);
+
+    @Modifying
+    @Query("DELETE FROM DrillSessionEvent e WHERE e.dailyPlanId IN :planIds")
+    int deleteByDailyPlanIdIn(@Param("planIds") List<Long> planIds);
+}
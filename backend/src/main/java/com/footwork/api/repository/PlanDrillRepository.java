@@ -2,6 +2,9 @@ package com.footwork.api.repository;
 
 import com.footwork.api.entity.PlanDrill;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -10,4 +13,16 @@ public interface PlanDrillRepository extends JpaRepository<PlanDrill, Long> {
     List<PlanDrill> findByDailyPlanOrderByOrderIndex(com.footwork.api.entity.DailyPlan dailyPlan);
     List<PlanDrill> findByDailyPlanAndSectionOrderByOrderIndex(com.footwork.api.entity.DailyPlan dailyPlan, String section);
     void deleteByDailyPlan(com.footwork.api.entity.DailyPlan dailyPlan);
+
+    @Modifying
+    @Query("DELETE FROM PlanDrill pd WHERE pd.dailyPlan.id IN :planIds")
+    int deleteByDailyPlanIdIn(@Param("planIds") List<Long> planIds);
+
+    @Modifying
+    @Query("DELETE FROM PlanDrill pd WHERE pd.dailyPlan.id IN (SELECT dp.id FROM DailyPlan dp WHERE dp.user = :user)")
+    int deleteAllByUser(@Param("user") com.footwork.api.entity.UserInfo user);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PlanDrill pd SET pd.drill = :drill, pd.duration = :duration WHERE pd.id = :id")
+    int replaceDrill(@Param("id") Long id, @Param("drill") com.footwork.api.entity.Drill drill, @Param("duration") Integer duration);
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.footwork.api.repository;
+
+import com.footwork.api.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    /**
+     * Record a revocation; revoking the same token twice (on any node) is a no-op
+     */
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_id, user_email, expires_at) VALUES (:tokenId, :userEmail, :expiresAt) " +
+        "ON CONFLICT (token_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") String tokenId, @Param("userEmail") String userEmail, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,26 @@
+package com.footwork.api.repository;
+
+import com.footwork.api.entity.StreakResetCutoff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Repository
+public interface StreakResetCutoffRepository extends JpaRepository<StreakResetCutoff, String> {
+
+    /**
+     * Record :cutoff as processed for every zone in :zones, never moving a zone's cutoff backwards.
+     * One statement per offset bucket, in the transaction that ran the bucket's reset.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO streak_reset_cutoffs (zone_id, cutoff) " +
+        "SELECT zone_id, CAST(:cutoff AS date) FROM unnest(ARRAY[:zones]) AS zone_id " +
+        "ON CONFLICT (zone_id) DO UPDATE SET cutoff = GREATEST(streak_reset_cutoffs.cutoff, EXCLUDED.cutoff)",
+        nativeQuery = true)
+    int advance(@Param("zones") Collection<String> zones, @Param("cutoff") LocalDate cutoff);
+}
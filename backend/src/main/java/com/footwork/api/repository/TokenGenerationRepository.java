@@ -0,0 +1,30 @@
+package com.footwork.api.repository;
+
+import com.footwork.api.entity.TokenGeneration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TokenGenerationRepository extends JpaRepository<TokenGeneration, String> {
+    List<TokenGeneration> findByGenerationGreaterThan(long since);
+
+    /**
+     * Move a user's generation to at least :minimum and strictly past the stored one, in one statement,
+     * so two nodes revoking at once both end up past every token issued before either call.
+     * Returns the new generation.
+     */
+    @Query(value = "INSERT INTO token_generations (user_email, generation) VALUES (:userEmail, :minimum) " +
+        "ON CONFLICT (user_email) DO UPDATE " +
+        "SET generation = GREATEST(:minimum, token_generations.generation + 1) " +
+        "RETURNING generation", nativeQuery = true)
+    Long advance(@Param("userEmail") String userEmail, @Param("minimum") long minimum);
+
+    @Modifying
+    @Query("DELETE FROM TokenGeneration g WHERE g.generation < :before")
+    int deleteOlderThan(@Param("before") long before);
+}
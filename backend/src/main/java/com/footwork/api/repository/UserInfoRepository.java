@@ -1,10 +1,21 @@
 package com.footwork.api.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.footwork.api.entity.LeaderboardRow;
 import com.footwork.api.entity.UserInfo;
 
 public interface UserInfoRepository extends JpaRepository<UserInfo, Integer> {
@@ -15,4 +26,67 @@ public interface UserInfoRepository extends JpaRepository<UserInfo, Integer> {
   List<UserInfo> findByNameContainingIgnoreCase(String query);
 
   List<UserInfo> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String name, String email);
+
+  // Streams every active streak for the leaderboard rebuild; must be consumed inside a transaction
+  @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+  @Query("SELECT new com.footwork.api.entity.LeaderboardRow(u.id, u.name, u.primaryPosition, u.timezone, u.streak, u.lastCompletedDate) " +
+      "FROM UserInfo u WHERE u.streak > 0")
+  Stream<LeaderboardRow> streamActiveStreaks();
+
+  @Query("SELECT new com.footwork.api.entity.LeaderboardRow(u.id, u.name, u.primaryPosition, u.timezone, u.streak, u.lastCompletedDate) " +
+      "FROM UserInfo u WHERE u.id = :id")
+  Optional<LeaderboardRow> findLeaderboardRow(@Param("id") Integer id);
+
+
+  // Set-based streak reset for zones whose local day rolls over together:
+  // every streak whose last completion is before the cutoff is broken
+  @Modifying
+  @Query("UPDATE UserInfo u SET u.streak = 0, u.version = u.version + 1 " +
+      "WHERE u.timezone IN :zones AND u.lastCompletedDate < :cutoff AND u.streak > 0")
+  int resetStreaksCompletedBeforeInZones(@Param("zones") Collection<String> zones, @Param("cutoff") LocalDate cutoff);
+
+  // Unset timezones count as UTC (see UserInfoService.resolveZone)
+  @Modifying
+  @Query("UPDATE UserInfo u SET u.streak = 0, u.version = u.version + 1 " +
+      "WHERE (u.timezone IS NULL OR u.timezone = '') AND u.lastCompletedDate < :cutoff AND u.streak > 0")
+  int resetStreaksCompletedBeforeWithoutTimezone(@Param("cutoff") LocalDate cutoff);
+
+  // Swap only the stored hash (no version bump), and only if it is still the hash the caller verified against
+  @Modifying
+  @Query("UPDATE UserInfo u SET u.password = :newHash WHERE u.email = :email AND u.password = :oldHash")
+  int replacePasswordHash(@Param("email") String email, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+  // Keyset page of users holding a streak, for the chunked admin sync job
+  @Query("SELECT u.id FROM UserInfo u WHERE u.id > :afterId AND u.streak > 0 ORDER BY u.id")
+  List<Integer> findStreakUserIdsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+  long countByStreakGreaterThan(Integer streak);
+
+  /**
+   * Reset broken streaks within one chunk of users, each judged against yesterday in their own timezone.
+   * Offset ids (+05:00, UTC+05:00) are passed as intervals: as text Postgres reads them as POSIX
+   * offsets with the sign inverted. Returns the ids that were reset.
+   */
+  @Query(value = "UPDATE user_info SET streak = 0, version = version + 1 " +
+      "WHERE id IN (:ids) AND streak > 0 " +
+      "AND last_completed_date < (CASE " +
+      "WHEN timezone ~ '^(UTC|GMT|UT)?[+-][0-9]' " +
+      "THEN now() AT TIME ZONE CAST(regexp_replace(timezone, '^(UTC|GMT|UT)', '') AS interval) " +
+      "WHEN timezone IS NULL OR timezone IN ('', 'Z', 'UT') THEN now() AT TIME ZONE 'UTC' " +
+      "ELSE now() AT TIME ZONE timezone END)::date - 1 " +
+      "RETURNING id", nativeQuery = true)
+  List<Integer> resetBrokenStreaksForIds(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * Record a completion for today in one conditional statement and return the new streak.
+   * Same day keeps the streak, the day after the last completion extends it, anything else restarts at 1.
+   */
+  @Query(value = "UPDATE user_info SET streak = CASE " +
+      "WHEN last_completed_date = :today THEN COALESCE(streak, 0) " +
+      "WHEN last_completed_date = :yesterday THEN COALESCE(streak, 0) + 1 " +
+      "ELSE 1 END, " +
+      "last_completed_date = :today, " +
+      "version = version + 1 " +
+      "WHERE id = :id RETURNING streak", nativeQuery = true)
+  Integer recordCompletion(@Param("id") int id, @Param("today") LocalDate today, @Param("yesterday") LocalDate yesterday);
 }
@@ -0,0 +1,74 @@
+package com.footwork.api.service;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt at a cost chosen for this machine. Each hash already records its own cost ($2a$NN$...),
+ * so upgradeEncoding reports any hash whose cost differs from ours, in either direction, and
+ * DaoAuthenticationProvider rehashes it on the next successful login.
+ * Instances of different speeds calibrate to different costs; pin app.security.bcrypt.cost on a
+ * mixed fleet so hashes don't flip between costs as users land on different nodes.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = Logger.getLogger(AdaptiveBCryptPasswordEncoder.class.getName());
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    private static final int MIN_BCRYPT_COST = 4;
+    private static final int MAX_BCRYPT_COST = 31;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final int cost;
+
+    public AdaptiveBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false; // Not a BCrypt hash; matches() would have rejected it already
+        }
+        return Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    /**
+     * Highest cost in [minCost, maxCost] whose hash takes no longer than targetMillis here.
+     * Times a few hashes at minCost and doubles from there, since each cost step doubles the work.
+     */
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        int lowest = Math.max(MIN_BCRYPT_COST, minCost);
+        int highest = Math.min(MAX_BCRYPT_COST, Math.max(lowest, maxCost));
+
+        String salt = BCrypt.gensalt(lowest);
+        BCrypt.hashpw("calibration", salt); // Warm up before timing
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            BCrypt.hashpw("calibration", salt);
+        }
+        double millisAtLowest = (System.nanoTime() - start) / 1_000_000.0 / CALIBRATION_ROUNDS;
+
+        int cost = lowest;
+        double millis = millisAtLowest;
+        while (cost < highest && millis * 2 <= targetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        logger.info("BCrypt cost calibrated to " + cost + " (~" + Math.round(millis) + " ms per hash, target "
+            + targetMillis + " ms, " + Math.round(millisAtLowest) + " ms at cost " + lowest + ")");
+        return cost;
+    }
+}
@@ -0,0 +1,137 @@
+package com.footwork.api.service;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Broadcasts small invalidation messages between API instances with Postgres NOTIFY/LISTEN.
+ * Enabled with app.cluster.enabled; when off, publish is a no-op and nothing listens.
+ * A NOTIFY sent inside a transaction is delivered when it commits. Each time LISTEN is in place (on the
+ * first connect and after every reconnect) subscribers receive ALL, so state loaded on ALL cannot miss a
+ * message: anything published earlier is in the database, anything later is delivered.
+ */
+@Component
+public class ClusterNotifier {
+
+    public static final String ALL = "*";
+
+    private static final Logger logger = Logger.getLogger(ClusterNotifier.class.getName());
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Map<String, List<Consumer<String>>> subscribers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterNotifier(DataSource dataSource,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${app.cluster.enabled:false}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Register a handler for a channel. Channel names are fixed identifiers, never user input.
+     * Subscribe during startup; channels are LISTENed when the listener connects.
+     */
+    public void subscribe(String channel, Consumer<String> handler) {
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    public void publish(String channel, String payload) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cluster-notify-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : subscribers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                logger.info("Cluster notifications listening on " + subscribers.keySet());
+                // Startup, or anything published while we were disconnected was missed
+                subscribers.keySet().forEach(channel -> dispatch(channel, ALL));
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // Any failure, not just SQLException, must end in a reconnect; a dead thread would stop all delivery
+                if (!running) {
+                    return;
+                }
+                logger.warning("Cluster notification listener lost its connection: " + e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        for (Consumer<String> handler : subscribers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (Exception e) {
+                logger.warning("Cluster notification handler for " + channel + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.CompletionCalendar;
+import com.footwork.api.entity.CompletionCalendarResponse;
+import com.footwork.api.entity.CompletionRun;
+import com.footwork.api.repository.CompletionCalendarRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user, per-year completion bitmaps.
+ * Completing a plan sets one bit; the heatmap and streak figures are bit scans over a user's
+ * few calendar rows, so daily_plans is never scanned for them.
+ */
+@Service
+public class CompletionCalendarService {
+
+    @Autowired
+    private CompletionCalendarRepository calendarRepository;
+
+    @Transactional
+    public void markCompleted(int userId, LocalDate day) {
+        calendarRepository.markDay(userId, day.getYear(), day.getDayOfYear() - 1);
+    }
+
+    @Transactional
+    public void markCompleted(int userId, Collection<LocalDate> days) {
+        days.stream().distinct().forEach(day -> markCompleted(userId, day));
+    }
+
+    @Transactional
+    public void deleteForUser(int userId) {
+        calendarRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Heatmap for one year plus current and longest streak, computed from the bitmaps.
+     * "today" is the user's local date; a streak is still current if the last completion was today or yesterday.
+     */
+    @Transactional(readOnly = true)
+    public CompletionCalendarResponse getCalendar(int userId, int year, LocalDate today) {
+        List<CompletionCalendar> calendars = calendarRepository.findByUserIdOrderByCalendarYearAsc(userId);
+
+        LocalDate firstDay = calendars.isEmpty() ? today : LocalDate.of(calendars.get(0).getCalendarYear(), 1, 1);
+        BitSet history = history(calendars, firstDay);
+
+        List<String> completedDates = new ArrayList<>();
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        int yearOffset = (int) ChronoUnit.DAYS.between(firstDay, yearStart);
+        int yearEnd = yearOffset + yearStart.lengthOfYear();
+        for (int bit = history.nextSetBit(Math.max(0, yearOffset)); bit >= 0 && bit < yearEnd; bit = history.nextSetBit(bit + 1)) {
+            completedDates.add(firstDay.plusDays(bit).toString());
+        }
+
+        return new CompletionCalendarResponse(
+            year,
+            completedDates,
+            completedDates.size(),
+            currentStreak(history, (int) ChronoUnit.DAYS.between(firstDay, today)),
+            longestStreak(history));
+    }
+
+    /**
+     * The run of consecutive days ending at the user's latest completion, or null if they have none.
+     */
+    @Transactional(readOnly = true)
+    public CompletionRun getLatestRun(int userId) {
+        List<CompletionCalendar> calendars = calendarRepository.findByUserIdOrderByCalendarYearAsc(userId);
+        if (calendars.isEmpty()) {
+            return null;
+        }
+        LocalDate firstDay = LocalDate.of(calendars.get(0).getCalendarYear(), 1, 1);
+        BitSet history = history(calendars, firstDay);
+        int end = history.length() - 1;
+        if (end < 0) {
+            return null;
+        }
+        int start = history.previousClearBit(end) + 1;
+        return new CompletionRun(firstDay.plusDays(start), firstDay.plusDays(end));
+    }
+
+    /**
+     * All years laid end to end, bit i = firstDay + i days, so runs crossing New Year are counted whole
+     */
+    private BitSet history(List<CompletionCalendar> calendars, LocalDate firstDay) {
+        BitSet history = new BitSet();
+        for (CompletionCalendar calendar : calendars) {
+            BitSet days = BitSet.valueOf(calendar.getDays());
+            LocalDate yearStart = LocalDate.of(calendar.getCalendarYear(), 1, 1);
+            int offset = (int) ChronoUnit.DAYS.between(firstDay, yearStart);
+            for (int bit = days.nextSetBit(0); bit >= 0 && bit < yearStart.lengthOfYear(); bit = days.nextSetBit(bit + 1)) {
+                history.set(offset + bit);
+            }
+        }
+        return history;
+    }
+
+    private int currentStreak(BitSet history, int todayIndex) {
+        int end = todayIndex;
+        if (end < 0) {
+            return 0;
+        }
+        if (!history.get(end)) {
+            end--; // Today not done yet; a streak through yesterday still counts
+        }
+        if (end < 0 || !history.get(end)) {
+            return 0;
+        }
+        return end - history.previousClearBit(end);
+    }
+
+    private int longestStreak(BitSet history) {
+        int longest = 0;
+        for (int start = history.nextSetBit(0); start >= 0; start = history.nextSetBit(start)) {
+            int end = history.nextClearBit(start);
+            longest = Math.max(longest, end - start);
+            start = end;
+        }
+        return longest;
+    }
+}
@@ -7,6 +7,7 @@ import com.footwork.api.repository.UserInfoRepository;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
@@ -22,16 +23,22 @@ public class EmailVerificationService {
     private final EmailVerificationRepository emailVerificationRepository;
     private final UserInfoRepository userInfoRepository;
     private final EmailService emailService;
+    private final ScheduledJobRunner jobRunner;
+    private final TransactionTemplate transactionTemplate;
     
     private static final int CODE_LENGTH = 6;
     private static final int CODE_EXPIRY_MINUTES = 10;
 
     public EmailVerificationService(EmailVerificationRepository emailVerificationRepository,
                                    UserInfoRepository userInfoRepository,
-                                   EmailService emailService) {
+                                   EmailService emailService,
+                                   ScheduledJobRunner jobRunner,
+                                   TransactionTemplate transactionTemplate) {
         this.emailVerificationRepository = emailVerificationRepository;
         this.userInfoRepository = userInfoRepository;
         this.emailService = emailService;
+        this.jobRunner = jobRunner;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional
@@ -146,13 +153,15 @@ public class EmailVerificationService {
         return code.toString();
     }
 
+    // Not @Transactional: the runner's jitter and lock wait must not hold a transaction open
     @Scheduled(cron = "0 */5 * * * ?") // Run every 5 minutes
-    @Transactional
     public void cleanupExpiredCodes() {
-        LocalDateTime now = LocalDateTime.now();
-        int deletedCount = emailVerificationRepository.deleteExpiredCodes(now);
-        if (deletedCount > 0) {
-            logger.info("Cleaned up " + deletedCount + " expired email verification codes");
-        }
+        jobRunner.runClustered("email-verification-cleanup", () -> {
+            LocalDateTime now = LocalDateTime.now();
+            Integer deletedCount = transactionTemplate.execute(status -> emailVerificationRepository.deleteExpiredCodes(now));
+            if (deletedCount != null && deletedCount > 0) {
+                logger.info("Cleaned up " + deletedCount + " expired email verification codes");
+            }
+        });
     }
 }
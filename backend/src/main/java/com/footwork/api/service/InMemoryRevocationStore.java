@@ -0,0 +1,44 @@
+package com.footwork.api.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Single-node store: the in-memory front in TokenRevocationService is the only copy,
+ * so revocations are neither shared with other instances nor kept across restarts.
+ */
+@Service
+@ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRevocationStore implements RevocationStore {
+
+    @Override
+    public void saveRevokedToken(String tokenId, String userEmail, long expiresAt) {
+    }
+
+    @Override
+    public long advanceGeneration(String userEmail, long minimum) {
+        return minimum;
+    }
+
+    @Override
+    public long findGeneration(String userEmail) {
+        return 0L;
+    }
+
+    @Override
+    public Map<String, Long> findActiveRevokedTokens(long now) {
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Long> findGenerationsSince(long since) {
+        return Map.of();
+    }
+
+    @Override
+    public int deleteExpired(long now, long generationsBefore) {
+        return 0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.footwork.api.service;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Principal built from the claims of a verified access token, with no database access.
+ * getName() is the email, so authentication.getName() keeps working in controllers;
+ * use UserInfoService.getCurrentUser to load the full user by id when it is actually needed.
+ */
+public class JwtPrincipal implements AuthenticatedPrincipal, Serializable {
+
+  private final int userId;
+  private final String email;
+  private final int securityVersion;
+  private final List<GrantedAuthority> authorities;
+
+  public JwtPrincipal(int userId, String email, String roles, int securityVersion) {
+    this.userId = userId;
+    this.email = email;
+    this.securityVersion = securityVersion;
+    this.authorities = roles == null ? List.of() : Arrays.stream(roles.split(","))
+        .map(String::trim)
+        .filter(role -> !role.isEmpty())
+        .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+        .map(SimpleGrantedAuthority::new)
+        .collect(Collectors.toList());
+  }
+
+  public static JwtPrincipal from(VerifiedToken token) {
+    Integer securityVersion = token.getSecurityVersion();
+    return new JwtPrincipal(token.getUserId(), token.getSubject(), token.getRoles(),
+        securityVersion != null ? securityVersion : 0);
+  }
+
+  @Override
+  public String getName() {
+    return email;
+  }
+
+  public int getUserId() {
+    return userId;
+  }
+
+  public int getSecurityVersion() {
+    return securityVersion;
+  }
+
+  public Collection<GrantedAuthority> getAuthorities() {
+    return authorities;
+  }
+
+  @Override
+  public String toString() {
+    return email;
+  }
+}
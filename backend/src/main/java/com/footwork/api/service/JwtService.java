@@ -1,12 +1,15 @@
 package com.footwork.api.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
@@ -14,43 +17,65 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtService {
 
+    // Access token claims that let JwtAuthFilter build the principal without a user lookup
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+    // User's token generation at issue time; TokenRevocationService rejects tokens from older generations
+    public static final String CLAIM_GENERATION = "gen";
+
+    public static final long ACCESS_TOKEN_VALIDITY_MS = 1000L * 60 * 30; // 30 minutes
+    public static final long REFRESH_TOKEN_VALIDITY_MS = 1000L * 60 * 60 * 24 * 7; // 7 days
+
     @Value("${jwt.secret}")
     private String SECRET;
 
     @Autowired
     private TokenRevocationService tokenRevocationService;
 
-    public String generateToken(String email) { // Use email as username
+    // Built once from the secret; both are immutable and thread-safe
+    private Key signKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
+        this.signKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+    }
+
+    public String generateToken(UserInfoDetails user) { // Use email as username
         Map<String, Object> claims = new HashMap<>();
-        String token = createToken(claims, email);
-        
-        // Track the user-token mapping for revocation purposes
-        tokenRevocationService.trackTokenForUser(token, email);
-        
-        return token;
+        claims.put(CLAIM_USER_ID, user.getUserId());
+        claims.put(CLAIM_ROLES, user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(",")));
+        claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        String email = user.getUsername();
+        claims.put(CLAIM_GENERATION, tokenRevocationService.getIssueGeneration(email));
+        return createToken(claims, email);
     }
 
     public String generateRefreshToken(String email) {
         Map<String, Object> claims = new HashMap<>();
-        String token = createRefreshToken(claims, email);
-        
-        // Track the user-token mapping for revocation purposes
-        tokenRevocationService.trackTokenForUser(token, email);
-        
-        return token;
+        claims.put(CLAIM_GENERATION, tokenRevocationService.getIssueGeneration(email));
+        return createRefreshToken(claims, email);
     }
 
     private String createToken(Map<String, Object> claims, String email) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30)) // 30 minutes
+                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_VALIDITY_MS))
                 .claim("tokenType", "ACCESS")
                 .signWith(getSignKey(), SignatureAlgorithm.HS256)
                 .compact();
@@ -59,17 +84,25 @@ public class JwtService {
     private String createRefreshToken(Map<String, Object> claims, String email) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24 * 7)) // 7 days
+                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_VALIDITY_MS))
                 .claim("tokenType", "REFRESH")
                 .signWith(getSignKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signKey;
+    }
+
+    /**
+     * Verify the signature and expiry once and return the claims for the rest of the request.
+     * Throws a JwtException if the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(token, extractAllClaims(token));
     }
 
     public String extractUsername(String token) {
@@ -116,11 +149,7 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Boolean isTokenExpired(String token) {
@@ -128,15 +157,29 @@ public class JwtService {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && 
-                !isTokenExpired(token) && 
-                !tokenRevocationService.isTokenRevoked(token));
+        return validateToken(verify(token), userDetails);
+    }
+    
+    /**
+     * Same checks as validateToken, on claims that were already verified (no further parsing)
+     */
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getSubject() != null &&
+               token.getSubject().equals(userDetails.getUsername()) &&
+               !token.isExpired() &&
+               !tokenRevocationService.isTokenRevoked(token);
+    }
+    
+    /**
+     * Checks for a claims-based principal: verified token not expired and not revoked
+     */
+    public boolean isUsable(VerifiedToken token) {
+        return !token.isExpired() && !tokenRevocationService.isTokenRevoked(token);
     }
     
     public Boolean isTokenValid(String token) {
         try {
-            return !isTokenExpired(token) && !tokenRevocationService.isTokenRevoked(token);
+            return isUsable(verify(token));
         } catch (Exception e) {
             return false;
         }
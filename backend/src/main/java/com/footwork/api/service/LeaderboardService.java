@@ -0,0 +1,335 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.LeaderboardEntry;
+import com.footwork.api.entity.LeaderboardRankResponse;
+import com.footwork.api.entity.LeaderboardResponse;
+import com.footwork.api.entity.LeaderboardRow;
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.repository.UserInfoRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Global and per-position streak leaderboards, held in memory and updated incrementally.
+ * Each board keeps a skip list ordered by (streak desc, userId) for the top of the table and a
+ * Fenwick tree of streak counts for a user's rank, so neither query touches the user table.
+ * Users without an active streak are not ranked. Rebuilt from one streaming query at startup (with
+ * app.cluster.enabled, once this node is LISTENing).
+ * Changes made inside a transaction are applied when it commits, so a rollback never reaches the boards.
+ * With app.cluster.enabled, the changed user id is broadcast and other nodes reload that user's row.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = Logger.getLogger(LeaderboardService.class.getName());
+    private static final String CHANNEL = "footwork_leaderboard";
+    public static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+
+    @Autowired
+    private ClusterNotifier clusterNotifier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Board global = new Board();
+    private final Map<String, Board> positionBoards = new ConcurrentHashMap<>();
+    // Current ranked row per user; writers hold the service lock, so a row and its board entries change together
+    private final Map<Integer, LeaderboardRow> rows = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribe() {
+        clusterNotifier.subscribe(CHANNEL, this::applyRemote);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAtStartup() {
+        // With notifications on, the ALL sent once LISTEN is in place triggers the rebuild instead
+        if (!clusterNotifier.isEnabled()) {
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        rows.clear();
+        global.clear();
+        positionBoards.clear();
+        try (Stream<LeaderboardRow> stream = userInfoRepository.streamActiveStreaks()) {
+            stream.filter(this::isRankable).forEach(row -> {
+                row.setPosition(normalize(row.getPosition()));
+                add(row);
+            });
+        }
+        logger.info("Leaderboard rebuilt with " + rows.size() + " active streaks");
+    }
+
+    /**
+     * Record a user's new streak after a completion (or an offline sync)
+     */
+    public void recordStreak(UserInfo user, int streak, LocalDate lastCompletedDate) {
+        LeaderboardRow row = streak > 0
+            ? new LeaderboardRow(user.getId(), user.getName(), normalize(user.getPrimaryPosition()),
+                user.getTimezone(), streak, lastCompletedDate)
+            : null;
+        int userId = user.getId();
+        afterCommit(() -> replace(userId, row));
+        clusterNotifier.publish(CHANNEL, String.valueOf(userId));
+    }
+
+    /**
+     * Pick up name, position and timezone changes for a ranked user
+     */
+    public void updateProfile(UserInfo user) {
+        int userId = user.getId();
+        String name = user.getName();
+        String position = normalize(user.getPrimaryPosition());
+        String timezone = user.getTimezone();
+        afterCommit(() -> {
+            synchronized (this) {
+                LeaderboardRow current = rows.get(userId);
+                if (current != null) {
+                    replace(userId, new LeaderboardRow(userId, name, position, timezone,
+                        current.getStreak(), current.getLastCompletedDate()));
+                }
+            }
+        });
+        clusterNotifier.publish(CHANNEL, String.valueOf(userId));
+    }
+
+    public void remove(int userId) {
+        afterCommit(() -> replace(userId, null));
+        clusterNotifier.publish(CHANNEL, String.valueOf(userId));
+    }
+
+    /**
+     * Mirror the nightly reset on this node: drop every user whose last completion is before yesterday
+     * in their own timezone. Runs on every instance, since each one holds its own copy of the boards.
+     * Returns the number of users removed.
+     */
+    public synchronized int evictBroken() {
+        List<Integer> broken = new ArrayList<>();
+        for (LeaderboardRow row : rows.values()) {
+            if (isBroken(row)) {
+                broken.add(row.getUserId());
+            }
+        }
+        broken.forEach(this::removeRow);
+        return broken.size();
+    }
+
+    /**
+     * Top of a board, ties sharing a rank. Position null means the global board.
+     */
+    public LeaderboardResponse getTop(String position, int limit) {
+        Board board = boardFor(position);
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<LeaderboardEntry> entries = new ArrayList<>(max);
+        int rank = 0;
+        int previousStreak = -1;
+        for (LeaderboardRow row : board.ordered) {
+            if (entries.size() == max) {
+                break;
+            }
+            if (row.getStreak() != previousStreak) {
+                rank = entries.size() + 1;
+                previousStreak = row.getStreak();
+            }
+            entries.add(new LeaderboardEntry(rank, row.getUserId(), row.getName(), row.getStreak()));
+        }
+        return new LeaderboardResponse(normalize(position), board.size(), entries);
+    }
+
+    /**
+     * A user's rank on a board: one more than the number of users with a strictly longer streak
+     */
+    public LeaderboardRankResponse getRank(int userId, String position) {
+        Board board = boardFor(position);
+        LeaderboardRow row = rows.get(userId);
+        String normalized = normalize(position);
+        if (row == null || (normalized != null && !normalized.equals(row.getPosition()))) {
+            return new LeaderboardRankResponse(normalized, null, 0, board.size());
+        }
+        return new LeaderboardRankResponse(normalized, board.countAbove(row.getStreak()) + 1, row.getStreak(), board.size());
+    }
+
+    /**
+     * Another node changed a user (or ALL after a listener reconnect): reload from the database
+     */
+    private void applyRemote(String payload) {
+        if (ClusterNotifier.ALL.equals(payload)) {
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+            return;
+        }
+        int userId = Integer.parseInt(payload);
+        LeaderboardRow row = userInfoRepository.findLeaderboardRow(userId)
+            .filter(this::isRankable)
+            .orElse(null);
+        if (row != null) {
+            row.setPosition(normalize(row.getPosition()));
+        }
+        replace(userId, row);
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void replace(int userId, LeaderboardRow row) {
+        removeRow(userId);
+        if (row != null) {
+            add(row);
+        }
+    }
+
+    private void add(LeaderboardRow row) {
+        rows.put(row.getUserId(), row);
+        global.add(row);
+        if (row.getPosition() != null) {
+            positionBoards.computeIfAbsent(row.getPosition(), position -> new Board()).add(row);
+        }
+    }
+
+    private void removeRow(int userId) {
+        LeaderboardRow row = rows.remove(userId);
+        if (row == null) {
+            return;
+        }
+        global.remove(row);
+        if (row.getPosition() != null) {
+            Board board = positionBoards.get(row.getPosition());
+            if (board != null) {
+                board.remove(row);
+            }
+        }
+    }
+
+    private Board boardFor(String position) {
+        String normalized = normalize(position);
+        if (normalized == null) {
+            return global;
+        }
+        Board board = positionBoards.get(normalized);
+        return board != null ? board : Board.EMPTY;
+    }
+
+    private boolean isRankable(LeaderboardRow row) {
+        return row.getStreak() != null && row.getStreak() > 0 && row.getLastCompletedDate() != null && !isBroken(row);
+    }
+
+    private boolean isBroken(LeaderboardRow row) {
+        LocalDate today = LocalDate.now(UserInfoService.resolveZone(row.getTimezone()));
+        return row.getLastCompletedDate().isBefore(today.minusDays(1));
+    }
+
+    private static String normalize(String position) {
+        return position == null || position.isBlank() ? null : position.trim().toUpperCase();
+    }
+
+    /**
+     * One ranked board. The skip list is read without locking for the top-K; the Fenwick tree
+     * (1-based, indexed by streak) is only touched under the board's monitor.
+     */
+    static final class Board {
+        static final Board EMPTY = new Board();
+
+        private static final Comparator<LeaderboardRow> ORDER = Comparator
+            .comparing(LeaderboardRow::getStreak, Comparator.reverseOrder())
+            .thenComparing(LeaderboardRow::getUserId);
+
+        private final ConcurrentSkipListSet<LeaderboardRow> ordered = new ConcurrentSkipListSet<>(ORDER);
+        private int[] tree = new int[1024];
+        private int count;
+
+        synchronized void add(LeaderboardRow row) {
+            if (!ordered.add(row)) {
+                return;
+            }
+            if (row.getStreak() >= tree.length) {
+                grow(row.getStreak());
+            } else {
+                bump(row.getStreak(), 1);
+            }
+            count++;
+        }
+
+        synchronized void remove(LeaderboardRow row) {
+            if (ordered.remove(row)) {
+                bump(row.getStreak(), -1);
+                count--;
+            }
+        }
+
+        synchronized void clear() {
+            ordered.clear();
+            tree = new int[1024];
+            count = 0;
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        /** Users with a streak strictly greater than the given one, in O(log maxStreak) */
+        synchronized int countAbove(int streak) {
+            return count - prefix(Math.min(streak, tree.length - 1));
+        }
+
+        private void bump(int streak, int delta) {
+            for (int i = streak; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        private int prefix(int streak) {
+            int sum = 0;
+            for (int i = streak; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        // Streaks past the tree's range are rare (years long); rebuild at double size from the skip list
+        private void grow(int streak) {
+            int length = tree.length;
+            while (length <= streak) {
+                length *= 2;
+            }
+            tree = new int[length];
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (LeaderboardRow row : ordered) {
+                counts.merge(row.getStreak(), 1, Integer::sum);
+            }
+            counts.forEach((streakValue, n) -> bump(streakValue, n));
+        }
+    }
+}
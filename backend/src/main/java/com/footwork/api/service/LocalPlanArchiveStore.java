@@ -0,0 +1,65 @@
+package com.footwork.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@ConditionalOnProperty(name = "app.plans.archive.store", havingValue = "local", matchIfMissing = true)
+public class LocalPlanArchiveStore implements PlanArchiveStore {
+
+    private final Path baseDir;
+
+    public LocalPlanArchiveStore(@Value("${app.plans.archive.local-dir:./plan-archive}") String baseDir) {
+        this.baseDir = Paths.get(baseDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        // Write to a temp file and move, so readers never see a half-written archive
+        Path temp = Files.createTempFile(target.getParent(), ".archive", ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        Path dir = resolve(prefix);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+                .map(path -> baseDir.relativize(path).toString().replace('\\', '/'))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    private Path resolve(String key) throws IOException {
+        Path path = baseDir.resolve(key).normalize();
+        if (!path.startsWith(baseDir)) {
+            throw new IOException("Invalid archive key: " + key);
+        }
+        return path;
+    }
+}
@@ -15,35 +15,33 @@ public class PasswordResetCleanupService {
     private static final Logger logger = Logger.getLogger(PasswordResetCleanupService.class.getName());
     
     private final PasswordResetService passwordResetService;
+    private final ScheduledJobRunner jobRunner;
 
     /**
      * Clean up expired password reset codes every 5 minutes
      * This prevents the database from accumulating expired codes
      * More frequent cleanup for better database hygiene
      */
-    @Scheduled(fixedRate = 5 * 60 * 1000) // Every 5 minutes
+    // Cron rather than fixedRate, so every node fires in the same minute and ScheduledJobRunner runs the tick once
+    @Scheduled(cron = "0 */5 * * * ?") // Every 5 minutes
     public void cleanupExpiredCodes() {
-        try {
+        jobRunner.runClustered("password-reset-expired-cleanup", () -> {
             logger.info("Starting scheduled cleanup of expired password reset codes");
             passwordResetService.cleanupExpiredCodes();
             logger.info("Completed scheduled cleanup of expired password reset codes");
-        } catch (Exception e) {
-            logger.severe("Error during scheduled cleanup of expired password reset codes: " + e.getMessage());
-        }
+        });
     }
     
     /**
      * Clean up old codes by age every 2 hours
      * Removes codes older than 24 hours for better database hygiene
      */
-    @Scheduled(fixedRate = 2 * 60 * 60 * 1000) // Every 2 hours
+    @Scheduled(cron = "0 0 */2 * * ?") // Every 2 hours
     public void cleanupOldCodes() {
-        try {
+        jobRunner.runClustered("password-reset-old-cleanup", () -> {
             logger.info("Starting scheduled cleanup of old password reset codes");
             passwordResetService.cleanupOldCodes();
             logger.info("Completed scheduled cleanup of old password reset codes");
-        } catch (Exception e) {
-            logger.severe("Error during scheduled cleanup of old password reset codes: " + e.getMessage());
-        }
+        });
     }
 }
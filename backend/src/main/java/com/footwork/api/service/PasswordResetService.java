@@ -7,7 +7,7 @@ import com.footwork.api.repository.UserInfoRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,7 +28,8 @@ public class PasswordResetService {
     private final UserInfoRepository userInfoRepository;
     private final EmailService emailService;
     private final TokenRevocationService tokenRevocationService;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
     
     @Value("${app.reset.ttlMinutes:30}")
     private int ttlMinutes;
@@ -142,7 +143,10 @@ public class PasswordResetService {
         // Update user password
         String hashedNewPassword = passwordEncoder.encode(newPassword);
         user.setPassword(hashedNewPassword);
+        // Sessions are revoked below; the version bump also invalidates tokens on nodes that missed the revocation
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
         userInfoRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
         
         // Mark code as consumed
         passwordResetCodeRepository.markAsConsumed(resetCode.getId());
@@ -0,0 +1,204 @@
+package com.footwork.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.footwork.api.entity.DailyPlan;
+import com.footwork.api.entity.PlanArchiveDrillRecord;
+import com.footwork.api.entity.PlanArchiveRecord;
+import com.footwork.api.entity.PlanDrill;
+import com.footwork.api.repository.DailyPlanRepository;
+import com.footwork.api.repository.DrillSessionEventRepository;
+import com.footwork.api.repository.PlanDrillRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.logging.Logger;
+
+/**
+ * Moves plan history older than a configurable age out of the hot tables into gzip NDJSON files.
+ * Files are written per user (plan-archive/user-{id}/...), so one user's archive can be streamed back
+ * without reading anyone else's. Rows are deleted only after their file has been stored.
+ */
+@Service
+public class PlanArchiveService {
+
+    private static final Logger logger = Logger.getLogger(PlanArchiveService.class.getName());
+    private static final String KEY_PREFIX = "plan-archive/user-";
+    // By last plan id, then first, as numbers. The last id is the second part in every key format so far
+    // (including the older "<runId>-<lastId>" and unpadded keys), so existing archives still sort in order
+    private static final Comparator<String> ARCHIVE_ORDER = Comparator
+        .comparingLong((String key) -> keyPart(key, 1))
+        .thenComparingLong(key -> keyPart(key, 0))
+        .thenComparing(Comparator.naturalOrder());
+
+    @Autowired
+    private DailyPlanRepository dailyPlanRepository;
+
+    @Autowired
+    private PlanDrillRepository planDrillRepository;
+
+    @Autowired
+    private DrillSessionEventRepository drillSessionEventRepository;
+
+    @Autowired
+    private PlanArchiveStore archiveStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScheduledJobRunner jobRunner;
+
+    @Value("${app.plans.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.plans.archive.after-days:365}")
+    private int archiveAfterDays;
+
+    @Value("${app.plans.archive.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Archive every plan dated before the cutoff, one chunk at a time.
+     * Returns the number of plans archived.
+     */
+    public int archivePlansOlderThan(LocalDate cutoff) {
+        long lastId = 0L;
+        int archived = 0;
+
+        while (true) {
+            List<DailyPlan> chunk = dailyPlanRepository.findByPlanDateBeforeAndIdGreaterThanOrderByIdAsc(
+                cutoff, lastId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            long firstId = chunk.get(0).getId();
+            lastId = chunk.get(chunk.size() - 1).getId();
+
+            // Group by user so each user's history lives under its own prefix
+            Map<Integer, List<PlanArchiveRecord>> recordsByUser = chunk.stream()
+                .map(this::toArchiveRecord)
+                .collect(Collectors.groupingBy(PlanArchiveRecord::getUserId, LinkedHashMap::new, Collectors.toList()));
+
+            try {
+                for (Map.Entry<Integer, List<PlanArchiveRecord>> entry : recordsByUser.entrySet()) {
+                    // Named by the chunk's plan ids, so a retried chunk overwrites its file instead of adding a copy;
+                    // zero-padded so the store's lexicographic listing is also chronological
+                    String key = KEY_PREFIX + entry.getKey() + "/" + String.format("%019d-%019d", firstId, lastId) + ".ndjson.gz";
+                    archiveStore.put(key, toGzippedNdjson(entry.getValue()));
+                }
+            } catch (IOException e) {
+                // Nothing from this chunk has been deleted yet, so the next run will retry it
+                throw new RuntimeException("Failed to write plan archive chunk ending at plan " + lastId, e);
+            }
+
+            List<Long> planIds = chunk.stream().map(DailyPlan::getId).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> {
+                // Session events are not archived; they only describe plans, so they go with them
+                drillSessionEventRepository.deleteByDailyPlanIdIn(planIds);
+                planDrillRepository.deleteByDailyPlanIdIn(planIds);
+                dailyPlanRepository.deleteByIdIn(planIds);
+            });
+
+            archived += chunk.size();
+        }
+
+        return archived;
+    }
+
+    /**
+     * Copy a user's archived plans to the given stream as uncompressed NDJSON, oldest archive first
+     */
+    public void streamUserArchive(int userId, OutputStream out) throws IOException {
+        List<String> keys = archiveStore.list(KEY_PREFIX + userId).stream()
+            .sorted(ARCHIVE_ORDER)
+            .collect(Collectors.toList());
+        for (String key : keys) {
+            try (InputStream in = new GZIPInputStream(archiveStore.open(key))) {
+                in.transferTo(out);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Nightly at 4:00 AM: archive plans older than app.plans.archive.after-days
+     */
+    @Scheduled(cron = "0 0 4 * * ?")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        jobRunner.runClustered("plan-archive", () -> {
+            LocalDate cutoff = LocalDate.now().minusDays(archiveAfterDays);
+            logger.info("Starting plan archive for plans before " + cutoff);
+            int archived = archivePlansOlderThan(cutoff);
+            logger.info("Plan archive completed: " + archived + " plans archived");
+        });
+    }
+
+    private byte[] toGzippedNdjson(List<PlanArchiveRecord> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            for (PlanArchiveRecord record : records) {
+                gzip.write(objectMapper.writeValueAsBytes(record));
+                gzip.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private PlanArchiveRecord toArchiveRecord(DailyPlan plan) {
+        List<PlanArchiveDrillRecord> drills = plan.getPlanDrills() == null ? List.of() : plan.getPlanDrills().stream()
+            .sorted(Comparator.comparing(PlanDrill::getOrderIndex, Comparator.nullsLast(Integer::compareTo)))
+            .map(planDrill -> new PlanArchiveDrillRecord(
+                planDrill.getDrill() != null ? planDrill.getDrill().getId() : null,
+                planDrill.getDrill() != null ? planDrill.getDrill().getName() : null,
+                planDrill.getDrillType(),
+                planDrill.getSection(),
+                planDrill.getOrderIndex(),
+                planDrill.getDuration()))
+            .collect(Collectors.toList());
+
+        return new PlanArchiveRecord(
+            plan.getId(),
+            plan.getUser().getId(),
+            plan.getPlanDate(),
+            plan.getUserLevel(),
+            plan.getPosition(),
+            plan.getSessionDuration(),
+            plan.isCompleted(),
+            drills);
+    }
+
+    // "<prefix>/<firstId>-<lastId>.ndjson.gz" -> firstId (part 0) or lastId (part 1); unparseable keys sort first
+    private static long keyPart(String key, int part) {
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        int end = name.indexOf('.');
+        String[] parts = (end >= 0 ? name.substring(0, end) : name).split("-");
+        try {
+            return parts.length == 2 ? Long.parseLong(parts[part]) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
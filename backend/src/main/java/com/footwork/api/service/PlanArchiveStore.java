@@ -0,0 +1,21 @@
+package com.footwork.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Destination for archived plan history files.
+ * Selected with app.plans.archive.store (local or s3).
+ */
+public interface PlanArchiveStore {
+
+    void put(String key, byte[] content) throws IOException;
+
+    /**
+     * Keys under the given prefix, in lexicographic order
+     */
+    List<String> list(String prefix) throws IOException;
+
+    InputStream open(String key) throws IOException;
+}
@@ -5,16 +5,23 @@ import com.footwork.api.repository.DailyPlanRepository;
 import com.footwork.api.repository.DrillRepository;
 import com.footwork.api.repository.PlanDrillRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 @Service
 public class PlanGenerationService {
 
+    private static final Logger logger = Logger.getLogger(PlanGenerationService.class.getName());
+
     @Autowired
     private DrillRepository drillRepository;
 
@@ -34,8 +41,8 @@ public class PlanGenerationService {
             throw new RuntimeException("User profile must be completed before generating plans");
         }
 
-        // Check if plan already exists for today and delete it
-        LocalDate today = LocalDate.now();
+        // Check if plan already exists for today (in the user's timezone) and delete it
+        LocalDate today = userInfoService.today(user);
         Optional<DailyPlan> existingPlan = dailyPlanRepository.findByUserAndPlanDate(user, today);
         if (existingPlan.isPresent()) {
             // Delete existing plan and its drills
@@ -64,17 +71,7 @@ public class PlanGenerationService {
         dailyPlan.setSessionDuration(totalDuration);
         dailyPlanRepository.save(dailyPlan);
 
-        // Keep only the latest plan for this user (delete older ones)
-        // We consider the plan list ordered by most recent date first; keep index 0
-        List<DailyPlan> userPlansDesc = dailyPlanRepository.findByUserOrderByPlanDateDesc(user);
-        if (userPlansDesc.size() > 1) {
-            // Delete drills for older plans first to avoid FK issues
-            for (int i = 1; i < userPlansDesc.size(); i++) {
-                planDrillRepository.deleteByDailyPlan(userPlansDesc.get(i));
-            }
-            // Then delete the older plans themselves
-            dailyPlanRepository.deleteAll(userPlansDesc.subList(1, userPlansDesc.size()));
-        }
+        // Older plans are kept as training history (see getPlanHistory)
 
         // Reload the plan with drills
         dailyPlan = dailyPlanRepository.findById(dailyPlan.getId()).orElse(dailyPlan);
@@ -107,11 +104,15 @@ public class PlanGenerationService {
         // Generate core drills based on user's position and level
         List<PlanDrill> coreDrills = generateCoreDrills(dailyPlan, allDrills, user, orderIndex, selectedDrillIds);
         planDrills.addAll(coreDrills);
+        orderIndex += coreDrills.size();
 
         // Generate cooldown drills (5 minutes for all levels)
         List<PlanDrill> cooldownDrills = generateCooldownDrills(dailyPlan, allDrills, orderIndex, selectedDrillIds);
         planDrills.addAll(cooldownDrills);
 
+        // plan_drills is partitioned by the parent plan's date
+        planDrills.forEach(planDrill -> planDrill.setPlanDate(dailyPlan.getPlanDate()));
+
         return planDrills;
     }
 
@@ -345,6 +346,79 @@ public class PlanGenerationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Replace a single drill slot in an existing plan with another drill from the same candidate pool.
+     * Only the affected plan_drills row and the plan's session duration are updated; the rest of the plan is untouched.
+     */
+    @Transactional
+    public DailyPlanResponse swapDrill(Long planId, Integer orderIndex, UserInfo user) {
+        DailyPlan dailyPlan = dailyPlanRepository.findById(planId)
+                .orElseThrow(() -> new RuntimeException("Plan not found"));
+
+        // Security check: Ensure the plan belongs to the authenticated user
+        if (dailyPlan.getUser().getId() != user.getId()) {
+            throw new SecurityException("You can only modify your own plans");
+        }
+
+        List<PlanDrill> currentDrills = planDrillRepository.findByDailyPlanOrderByOrderIndex(dailyPlan);
+        PlanDrill slot = currentDrills.stream()
+                .filter(d -> orderIndex.equals(d.getOrderIndex()))
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No drill found at position " + orderIndex));
+
+        // Exclude every drill already in the plan (including the one being replaced)
+        Set<Long> excludedDrillIds = currentDrills.stream()
+                .map(d -> d.getDrill().getId())
+                .collect(Collectors.toSet());
+
+        List<Drill> candidates = findSwapCandidates(slot, dailyPlan.getPosition(), drillRepository.findAll()).stream()
+                .filter(drill -> !excludedDrillIds.contains(drill.getId()))
+                .collect(Collectors.toList());
+
+        if (candidates.isEmpty()) {
+            throw new RuntimeException("No alternative drills available for this slot");
+        }
+
+        Drill replacement = getRandomDrill(candidates);
+
+        // Warmup, fitness and cooldown slots have fixed durations; core slots use the drill's own duration
+        int oldDuration = slot.getDuration() != null ? slot.getDuration() : 0;
+        int newDuration = "CORE".equals(slot.getSection()) && replacement.getDuration() != null
+                ? replacement.getDuration()
+                : oldDuration;
+
+        planDrillRepository.replaceDrill(slot.getId(), replacement, newDuration);
+        if (newDuration != oldDuration) {
+            dailyPlanRepository.adjustSessionDuration(dailyPlan.getId(), newDuration - oldDuration);
+        }
+
+        logger.fine("Swapped drill at position " + orderIndex + " in plan " + planId + " for: " + replacement.getName());
+
+        // Reload the plan to pick up the updated row and duration
+        dailyPlan = dailyPlanRepository.findById(planId).orElse(dailyPlan);
+        return convertToResponse(dailyPlan);
+    }
+
+    private List<Drill> findSwapCandidates(PlanDrill slot, String position, List<Drill> allDrills) {
+        String section = slot.getSection() != null ? slot.getSection() : "CORE";
+        switch (section) {
+            case "WARMUP":
+                return filterDrillsByTypeColumn(allDrills, "warmup");
+            case "FITNESS":
+                return filterDrillsByTypeColumn(allDrills, "fitness");
+            case "COOLDOWN":
+                return filterDrillsByTypeColumn(allDrills, "cooldown");
+            default:
+                return filterDrillsByType(allDrills, slot.getDrillType(), position);
+        }
+    }
+
+    private List<Drill> filterDrillsByTypeColumn(List<Drill> allDrills, String type) {
+        return allDrills.stream()
+                .filter(drill -> drill.getType() != null && drill.getType().equalsIgnoreCase(type))
+                .collect(Collectors.toList());
+    }
+
     private Drill getRandomDrill(List<Drill> drills) {
         if (drills.isEmpty()) {
             return null;
@@ -361,6 +435,10 @@ public class PlanGenerationService {
     }
 
     private DailyPlanResponse convertToResponse(DailyPlan dailyPlan) {
+        return convertToResponse(dailyPlan, planDrillRepository.findByDailyPlanOrderByOrderIndex(dailyPlan));
+    }
+
+    private DailyPlanResponse convertToResponse(DailyPlan dailyPlan, List<PlanDrill> allPlanDrills) {
         DailyPlanResponse response = new DailyPlanResponse();
         response.setPlanId(dailyPlan.getId());
         response.setUserId(dailyPlan.getUser().getId());
@@ -369,8 +447,6 @@ public class PlanGenerationService {
         response.setPosition(dailyPlan.getPosition());
         
         // Group drills by section
-        List<PlanDrill> allPlanDrills = planDrillRepository.findByDailyPlanOrderByOrderIndex(dailyPlan);
-        
         response.setSessionDuration(dailyPlan.getSessionDuration());
         
         response.setCompleted(dailyPlan.isCompleted());
@@ -408,14 +484,94 @@ public class PlanGenerationService {
         return response;
     }
 
+    /**
+     * Page through a user's plan history between two dates (inclusive), most recent first.
+     * Drills come from the plans' own (batch-loaded) collections rather than a query per plan.
+     */
+    @Transactional(readOnly = true)
+    public PlanHistoryResponse getPlanHistory(UserInfo user, LocalDate from, LocalDate to, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "planDate"));
+        Page<DailyPlan> plans = dailyPlanRepository.findByUserAndPlanDateBetween(user, from, to, pageable);
+
+        List<DailyPlanResponse> responses = plans.getContent().stream()
+                .map(plan -> convertToResponse(plan, plan.getPlanDrills() != null
+                        ? plan.getPlanDrills().stream()
+                                .sorted(Comparator.comparing(PlanDrill::getOrderIndex, Comparator.nullsLast(Integer::compareTo)))
+                                .collect(Collectors.toList())
+                        : Collections.emptyList()))
+                .collect(Collectors.toList());
+
+        return new PlanHistoryResponse(responses, plans.getNumber(), plans.getSize(),
+                plans.getTotalElements(), plans.getTotalPages());
+    }
+
     public DailyPlanResponse getCurrentPlan(UserInfo user) {
-        LocalDate today = LocalDate.now();
+        LocalDate today = userInfoService.today(user);
         Optional<DailyPlan> plan = dailyPlanRepository.findByUserAndPlanDate(user, today);
         return plan.map(this::convertToResponse).orElse(null);
     }
 
 
 
+    /**
+     * Apply a batch of offline completions for one user.
+     * Plans are resolved and ownership-checked in one query, marked completed in one statement,
+     * and the streak is recomputed once at the end, all in a single transaction.
+     */
+    @Transactional
+    public CompletionSyncResponse syncCompletions(UserInfo user, List<CompletionSyncEntry> entries) {
+        Set<Long> planIds = entries.stream()
+                .map(CompletionSyncEntry::getPlanId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<LocalDate> planDates = entries.stream()
+                .filter(entry -> entry.getPlanId() == null)
+                .map(CompletionSyncEntry::getPlanDate)
+                .collect(Collectors.toSet());
+
+        // Empty IN lists are not portable, so pad them with values that never match
+        List<DailyPlan> plans = dailyPlanRepository.findByUserAndIdInOrPlanDateIn(user,
+                planIds.isEmpty() ? List.of(-1L) : planIds,
+                planDates.isEmpty() ? List.of(LocalDate.EPOCH) : planDates);
+
+        Map<Long, DailyPlan> plansById = new HashMap<>();
+        Map<LocalDate, DailyPlan> plansByDate = new HashMap<>();
+        for (DailyPlan plan : plans) {
+            plansById.put(plan.getId(), plan);
+            plansByDate.put(plan.getPlanDate(), plan);
+        }
+
+        // Plans are looked up within this user's plans, so a missing id is someone else's (or doesn't exist)
+        if (!plansById.keySet().containsAll(planIds)) {
+            throw new SecurityException("You can only mark your own plans as completed");
+        }
+
+        Set<Long> completedPlanIds = new HashSet<>();
+        List<LocalDate> completionDays = new ArrayList<>();
+        List<String> unmatchedDates = new ArrayList<>();
+        for (CompletionSyncEntry entry : entries) {
+            DailyPlan plan = entry.getPlanId() != null
+                    ? plansById.get(entry.getPlanId())
+                    : plansByDate.get(entry.getPlanDate());
+            if (plan == null) {
+                unmatchedDates.add(entry.getPlanDate().toString());
+                continue;
+            }
+            completedPlanIds.add(plan.getId());
+            // Credit the plan's own day: a session that ran past midnight, or was queued offline, still counts for it
+            completionDays.add(plan.getPlanDate());
+        }
+
+        int updated = completedPlanIds.isEmpty() ? 0 : dailyPlanRepository.markCompleted(completedPlanIds);
+        userInfoService.applyCompletionDates(user, completionDays);
+
+        return new CompletionSyncResponse(
+                updated,
+                unmatchedDates,
+                user.getStreak(),
+                user.getLastCompletedDate() != null ? user.getLastCompletedDate().toString() : null);
+    }
+
     public void markPlanAsCompleted(Long planId) {
         Optional<DailyPlan> plan = dailyPlanRepository.findById(planId);
         if (plan.isPresent()) {
@@ -425,24 +581,20 @@ public class PlanGenerationService {
         }
     }
 
+    @Transactional
     public void markPlanAsCompleted(Long planId, UserInfo user) {
-        Optional<DailyPlan> plan = dailyPlanRepository.findById(planId);
-        if (plan.isPresent()) {
-            DailyPlan dailyPlan = plan.get();
-            
-            // Security check: Ensure the plan belongs to the authenticated user
-            if (dailyPlan.getUser().getId() != user.getId()) {
+        // One statement scoped to the user; only look the plan up to explain a miss
+        int updated = dailyPlanRepository.markCompletedForUser(planId, user);
+        if (updated == 0) {
+            if (dailyPlanRepository.existsById(planId)) {
+                // Security check: the plan exists but belongs to another user
                 throw new SecurityException("You can only mark your own plans as completed");
             }
-            
-            dailyPlan.setCompleted(true);
-            dailyPlanRepository.save(dailyPlan);
-            
-            // Update user streak
-            userInfoService.updateUserStreak(user);
-        } else {
             throw new RuntimeException("Plan not found");
         }
+
+        // Update user streak
+        userInfoService.updateUserStreak(user);
     }
 
 
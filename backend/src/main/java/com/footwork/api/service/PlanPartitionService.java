@@ -0,0 +1,183 @@
+package com.footwork.api.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Maintains the month partitions of daily_plans and plan_drills.
+ * Partitioning itself is set up once with db/plan-history-partitioning.sql; until then every method here is a no-op.
+ * Old months are removed by dropping (or detaching) whole partitions instead of deleting rows one by one.
+ */
+@Service
+public class PlanPartitionService {
+
+    private static final Logger logger = Logger.getLogger(PlanPartitionService.class.getName());
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String PLANS_TABLE = "daily_plans";
+    private static final String DRILLS_TABLE = "plan_drills";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ScheduledJobRunner jobRunner;
+
+    @Value("${app.plans.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    // 0 keeps every month; otherwise partitions older than this many months are removed
+    @Value("${app.plans.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    // DETACH keeps expired months as standalone tables (for pg_dump/archiving); DROP discards them
+    @Value("${app.plans.partitions.retention-action:DETACH}")
+    private String retentionAction;
+
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?",
+            Integer.class, PLANS_TABLE);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Create partitions for the current month and the configured number of months ahead.
+     */
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createMonthPartitions(current.plusMonths(i));
+        }
+    }
+
+    public void createMonthPartitions(YearMonth month) {
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        // Parent plan partition first, since plan_drills references it
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(PLANS_TABLE, month) +
+            " PARTITION OF " + PLANS_TABLE + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(DRILLS_TABLE, month) +
+            " PARTITION OF " + DRILLS_TABLE + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * Month partitions currently attached to daily_plans, oldest first.
+     */
+    public List<YearMonth> listMonthPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? ORDER BY c.relname",
+            String.class, PLANS_TABLE);
+
+        String prefix = PLANS_TABLE + "_";
+        return names.stream()
+            .filter(name -> name.startsWith(prefix) && name.length() == prefix.length() + 7)
+            .map(name -> YearMonth.parse(name.substring(prefix.length()), SUFFIX_FORMAT))
+            .toList();
+    }
+
+    /**
+     * Detach a month from both tables. The data stays in standalone tables that can be dumped and dropped later.
+     * The detached drills table keeps its foreign key to the daily_plans parent, which would block detaching the
+     * plans partition, so it is repointed at the detached plans table instead.
+     */
+    public void detachMonth(YearMonth month) {
+        // One transaction, so a failure cannot leave the drills partition detached on its own
+        transactionTemplate.executeWithoutResult(status -> {
+            String drillsPartition = partitionName(DRILLS_TABLE, month);
+            String plansPartition = partitionName(PLANS_TABLE, month);
+
+            jdbcTemplate.execute("ALTER TABLE " + DRILLS_TABLE + " DETACH PARTITION " + drillsPartition);
+            List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE contype = 'f' AND conrelid = ?::regclass AND confrelid = ?::regclass",
+                String.class, drillsPartition, PLANS_TABLE);
+            for (String foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + drillsPartition + " DROP CONSTRAINT " + foreignKey);
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + PLANS_TABLE + " DETACH PARTITION " + plansPartition);
+            // Every row was already checked against the parent, so skip re-validating the archive
+            jdbcTemplate.execute("ALTER TABLE " + drillsPartition + " ADD CONSTRAINT " + drillsPartition + "_plan_fkey" +
+                " FOREIGN KEY (daily_plan_id, plan_date) REFERENCES " + plansPartition + " (id, plan_date) NOT VALID");
+        });
+
+        logger.info("Detached plan partitions for " + month);
+    }
+
+    /**
+     * Drop a month from both tables. This is a metadata operation, not a row-by-row delete.
+     */
+    public void dropMonth(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(DRILLS_TABLE, month));
+        jdbcTemplate.execute("ALTER TABLE " + PLANS_TABLE + " DETACH PARTITION " + partitionName(PLANS_TABLE, month));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(PLANS_TABLE, month));
+        logger.info("Dropped plan partitions for " + month);
+    }
+
+    /**
+     * Remove every month partition older than the configured retention.
+     * Returns the number of months removed.
+     */
+    public int applyRetention() {
+        if (retentionMonths <= 0) {
+            return 0;
+        }
+
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        int removed = 0;
+        for (YearMonth month : listMonthPartitions()) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            if ("DROP".equalsIgnoreCase(retentionAction)) {
+                dropMonth(month);
+            } else {
+                detachMonth(month);
+            }
+            removed++;
+        }
+        return removed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Daily at 3:00 AM: make sure upcoming months exist and expire old ones
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void maintainPartitions() {
+        jobRunner.runClustered("plan-partition-maintenance", () -> {
+            if (!isPartitioned()) {
+                return;
+            }
+            ensurePartitions();
+            int removed = applyRetention();
+            if (removed > 0) {
+                logger.info("Plan partition retention removed " + removed + " month(s)");
+            }
+        });
+    }
+
+    private String partitionName(String table, YearMonth month) {
+        return table + "_" + month.format(SUFFIX_FORMAT);
+    }
+}
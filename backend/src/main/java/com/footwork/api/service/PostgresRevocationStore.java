@@ -0,0 +1,70 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.RevokedToken;
+import com.footwork.api.entity.TokenGeneration;
+import com.footwork.api.repository.RevokedTokenRepository;
+import com.footwork.api.repository.TokenGenerationRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Revocations in revoked_tokens and token_generations, shared by every instance and kept across restarts.
+ * Writes join the caller's transaction when there is one.
+ */
+@Service
+@ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "postgres")
+public class PostgresRevocationStore implements RevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenGenerationRepository tokenGenerationRepository;
+
+    public PostgresRevocationStore(RevokedTokenRepository revokedTokenRepository,
+                                   TokenGenerationRepository tokenGenerationRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenGenerationRepository = tokenGenerationRepository;
+    }
+
+    @Override
+    @Transactional
+    public void saveRevokedToken(String tokenId, String userEmail, long expiresAt) {
+        revokedTokenRepository.insertIfAbsent(tokenId, userEmail, Instant.ofEpochMilli(expiresAt));
+    }
+
+    @Override
+    @Transactional
+    public long advanceGeneration(String userEmail, long minimum) {
+        return tokenGenerationRepository.advance(userEmail, minimum);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findGeneration(String userEmail) {
+        return tokenGenerationRepository.findById(userEmail).map(TokenGeneration::getGeneration).orElse(0L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> findActiveRevokedTokens(long now) {
+        return revokedTokenRepository.findByExpiresAtAfter(Instant.ofEpochMilli(now)).stream()
+            .collect(Collectors.toMap(RevokedToken::getTokenId, token -> token.getExpiresAt().toEpochMilli()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> findGenerationsSince(long since) {
+        return tokenGenerationRepository.findByGenerationGreaterThan(since).stream()
+            .collect(Collectors.toMap(TokenGeneration::getUserEmail, TokenGeneration::getGeneration));
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(long now, long generationsBefore) {
+        return revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now))
+            + tokenGenerationRepository.deleteOlderThan(generationsBefore);
+    }
+}
@@ -0,0 +1,38 @@
+package com.footwork.api.service;
+
+import java.util.Map;
+
+/**
+ * Where token revocations are kept beyond this node's in-memory front in TokenRevocationService.
+ * Selected with app.jwt.revocation.store (memory or postgres).
+ */
+public interface RevocationStore {
+
+    void saveRevokedToken(String tokenId, String userEmail, long expiresAt);
+
+    /**
+     * Advance a user's generation to at least minimum and past any stored value; returns the new generation
+     */
+    long advanceGeneration(String userEmail, long minimum);
+
+    /**
+     * A user's stored generation; 0 if there is none
+     */
+    long findGeneration(String userEmail);
+
+    /**
+     * Revoked token ids that have not expired yet, with their expiry in epoch millis
+     */
+    Map<String, Long> findActiveRevokedTokens(long now);
+
+    /**
+     * Generations newer than the given epoch millis, by email
+     */
+    Map<String, Long> findGenerationsSince(long since);
+
+    /**
+     * Drop revoked tokens that have expired and generations older than the given epoch millis.
+     * Returns the number of entries removed.
+     */
+    int deleteExpired(long now, long generationsBefore);
+}
@@ -0,0 +1,180 @@
+package com.footwork.api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over revoked token ids, in front of the exact map in TokenRevocationService.
+ * A negative answer means "definitely not revoked"; only a positive needs the exact lookup.
+ * Ids are placed in a slice by their token's expiry (one slice per app.jwt.revocation.bloom.slice-hours),
+ * and a slice is dropped whole once its window has passed, since every id in it has expired by then.
+ * That keeps the filter from filling up without ever rebuilding it. A check passes the token's own expiry,
+ * so it probes only the one slice that id could have been added to.
+ */
+@Component
+public class RevokedTokenFilter {
+
+    private final long sliceMillis;
+    private final int bitsPerSlice;
+    private final int hashCount;
+    private final ConcurrentNavigableMap<Long, Slice> slices = new ConcurrentSkipListMap<>();
+    private final Clock clock;
+    private volatile long nextRotationAt;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    @Autowired
+    public RevokedTokenFilter(@Value("${app.jwt.revocation.bloom.slice-hours:24}") long sliceHours,
+                              @Value("${app.jwt.revocation.bloom.expected-per-slice:10000}") int expectedPerSlice,
+                              @Value("${app.jwt.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                              MeterRegistry meterRegistry) {
+        this(sliceHours, expectedPerSlice, falsePositiveRate, meterRegistry, Clock.systemUTC());
+    }
+
+    RevokedTokenFilter(long sliceHours, int expectedPerSlice, double falsePositiveRate, MeterRegistry meterRegistry,
+                       Clock clock) {
+        this.clock = clock;
+        this.sliceMillis = sliceHours * 60 * 60 * 1000;
+        // Standard sizing: m = -n ln p / (ln 2)^2 bits, k = m/n ln 2 hashes
+        long bits = (long) Math.ceil(-expectedPerSlice * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerSlice = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitsPerSlice / expectedPerSlice * Math.log(2)));
+        this.nextRotationAt = (clock.millis() / sliceMillis + 1) * sliceMillis;
+
+        this.negatives = meterRegistry.counter("footwork.jwt.revocation.bloom.checks", "result", "negative");
+        this.positives = meterRegistry.counter("footwork.jwt.revocation.bloom.checks", "result", "positive");
+        this.falsePositives = meterRegistry.counter("footwork.jwt.revocation.bloom.false.positives");
+        Gauge.builder("footwork.jwt.revocation.bloom.fpp.estimated", this, RevokedTokenFilter::estimatedFalsePositiveRate)
+            .register(meterRegistry);
+        Gauge.builder("footwork.jwt.revocation.bloom.memory", this, RevokedTokenFilter::memoryBytes)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("footwork.jwt.revocation.bloom.slices", slices, ConcurrentNavigableMap::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Add an id that stays revoked until expiresAt (epoch millis). Add before publishing it to the exact map.
+     */
+    public void add(String tokenId, long expiresAt) {
+        rotateIfDue();
+        long index = expiresAt / sliceMillis;
+        if (index < clock.millis() / sliceMillis) {
+            return; // Its slice is already gone; the token can't be presented anymore
+        }
+        slices.computeIfAbsent(index, i -> new Slice(bitsPerSlice)).add(hash(tokenId), hashCount);
+    }
+
+    /**
+     * Whether an id with this expiry (epoch millis, the same value it was added with) may have been added
+     */
+    public boolean mightContain(String tokenId, long expiresAt) {
+        rotateIfDue();
+        Slice slice = slices.get(expiresAt / sliceMillis);
+        if (slice != null && slice.mightContain(hash(tokenId), hashCount)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Called when a positive was not confirmed by the exact lookup
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Chance that an id never added is reported present, combined over the live slices
+     */
+    public double estimatedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (Slice slice : slices.values()) {
+            double perSlice = Math.pow(1 - Math.exp(-(double) hashCount * slice.count.get() / bitsPerSlice), hashCount);
+            allNegative *= 1 - perSlice;
+        }
+        return 1 - allNegative;
+    }
+
+    public long memoryBytes() {
+        return (long) slices.size() * (bitsPerSlice / 8);
+    }
+
+    private void rotateIfDue() {
+        long now = clock.millis();
+        if (now < nextRotationAt) {
+            return;
+        }
+        long currentIndex = now / sliceMillis;
+        // Slice i holds ids expiring before (i + 1) * sliceMillis, so everything below the current index is dead
+        slices.headMap(currentIndex).clear();
+        nextRotationAt = (currentIndex + 1) * sliceMillis;
+    }
+
+    /**
+     * Two independent 64-bit hashes for double hashing (FNV-1a, then finalized twice with different seeds)
+     */
+    private static long[] hash(String tokenId) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : tokenId.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return new long[] { mix(h), mix(h ^ 0x9e3779b97f4a7c15L) | 1 };
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Slice {
+        private final AtomicLongArray words;
+        private final int bits;
+        private final AtomicInteger count = new AtomicInteger();
+
+        Slice(int bits) {
+            this.bits = bits;
+            this.words = new AtomicLongArray((bits + 63) / 64);
+        }
+
+        void add(long[] hashes, int hashCount) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = bitIndex(hashes, i);
+                long mask = 1L << (bit & 63);
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long[] hashes, int hashCount) {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = bitIndex(hashes, i);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int bitIndex(long[] hashes, int i) {
+            return (int) Math.floorMod(hashes[0] + i * hashes[1], (long) bits);
+        }
+    }
+}
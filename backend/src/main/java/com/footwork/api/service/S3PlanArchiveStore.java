@@ -0,0 +1,79 @@
+package com.footwork.api.service;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Archive store backed by S3 or any S3-compatible service (set app.plans.archive.s3.endpoint for MinIO etc.)
+ */
+@Service
+@ConditionalOnProperty(name = "app.plans.archive.store", havingValue = "s3")
+public class S3PlanArchiveStore implements PlanArchiveStore {
+
+  private final S3Client s3Client;
+  private final String bucketName;
+
+  public S3PlanArchiveStore(
+      @Value("${aws.region}") String awsRegion,
+      @Value("${app.plans.archive.s3.bucket}") String bucketName,
+      @Value("${app.plans.archive.s3.endpoint:}") String endpoint
+  ) {
+    this.bucketName = bucketName;
+    S3ClientBuilder builder = S3Client.builder()
+        .region(Region.of(awsRegion))
+        .credentialsProvider(DefaultCredentialsProvider.create());
+    if (endpoint != null && !endpoint.isEmpty()) {
+      // S3-compatible stores generally expect path-style addressing
+      builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+    }
+    this.s3Client = builder.build();
+  }
+
+  @Override
+  public void put(String key, byte[] content) {
+    PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+        .bucket(bucketName)
+        .key(key)
+        .contentType("application/x-ndjson")
+        .contentEncoding("gzip")
+        .build();
+    s3Client.putObject(putObjectRequest, RequestBody.fromBytes(content));
+  }
+
+  @Override
+  public List<String> list(String prefix) {
+    ListObjectsV2Request request = ListObjectsV2Request.builder()
+        .bucket(bucketName)
+        .prefix(prefix.endsWith("/") ? prefix : prefix + "/")
+        .build();
+    return s3Client.listObjectsV2Paginator(request).contents().stream()
+        .map(S3Object::key)
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public InputStream open(String key) {
+    GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+        .bucket(bucketName)
+        .key(key)
+        .build();
+    return s3Client.getObject(getObjectRequest);
+  }
+}
@@ -0,0 +1,136 @@
+package com.footwork.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs database-wide scheduled jobs on one node at a time using Postgres session advisory locks.
+ * The lock is taken with pg_try_advisory_lock on a dedicated pooled connection that stays open for the
+ * duration of the job, so a node that dies mid-job releases it when its session ends. Nodes that lose the
+ * race skip that tick instead of waiting.
+ * The lock alone only keeps runs from overlapping: a fast job can finish and unlock before a node with a longer
+ * jitter tries, so runTick also claims the tick in scheduled_job_runs and a tick already claimed is skipped.
+ * Only wrap jobs whose work is shared through the database; node-local in-memory jobs must run everywhere.
+ */
+@Service
+public class ScheduledJobLockService {
+
+    private static final Logger logger = Logger.getLogger(ScheduledJobLockService.class.getName());
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final AtomicInteger locksHeld = new AtomicInteger();
+
+    public ScheduledJobLockService(DataSource dataSource,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.scheduling.cluster-lock.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        meterRegistry.gauge("footwork.scheduler.locks.held", locksHeld);
+    }
+
+    /**
+     * Run the task if this node wins the job's lock. Returns false if another node holds it
+     * (or the lock could not be taken), in which case the task is not run.
+     */
+    public boolean runExclusively(String jobName, Runnable task) {
+        return run(jobName, null, task);
+    }
+
+    /**
+     * Run one scheduled tick (epoch millis) of a job on exactly one node: under the job's lock, and only if no
+     * node has claimed that tick yet. Returns false if the lock was held or the tick was already run elsewhere.
+     */
+    public boolean runTick(String jobName, long tick, Runnable task) {
+        return run(jobName, tick, task);
+    }
+
+    private boolean run(String jobName, Long tick, Runnable task) {
+        if (!enabled) {
+            task.run();
+            return true;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tryLock(connection, jobName)) {
+                meterRegistry.counter("footwork.scheduler.lock.skipped", "job", jobName).increment();
+                return false;
+            }
+            if (tick != null && !claimTick(connection, jobName, tick)) {
+                unlock(connection, jobName);
+                meterRegistry.counter("footwork.scheduler.tick.skipped", "job", jobName).increment();
+                return false;
+            }
+
+            meterRegistry.counter("footwork.scheduler.lock.acquired", "job", jobName).increment();
+            locksHeld.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                meterRegistry.timer("footwork.scheduler.lock.held.duration", "job", jobName)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                locksHeld.decrementAndGet();
+                unlock(connection, jobName);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Could not take scheduler lock for " + jobName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean tryLock(Connection connection, String jobName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+            statement.setString(1, jobName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    /**
+     * Record the tick as run; false if another node already did. Claims older than a week are pruned as we go.
+     */
+    private boolean claimTick(Connection connection, String jobName, long tick) throws SQLException {
+        int claimed;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO scheduled_job_runs (job_name, tick) VALUES (?, ?) ON CONFLICT (job_name, tick) DO NOTHING")) {
+            statement.setString(1, jobName);
+            statement.setLong(2, tick);
+            claimed = statement.executeUpdate();
+        }
+        if (claimed > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM scheduled_job_runs WHERE job_name = ? AND tick < ?")) {
+                statement.setString(1, jobName);
+                statement.setLong(2, tick - TimeUnit.DAYS.toMillis(7));
+                statement.executeUpdate();
+            }
+        }
+        return claimed > 0;
+    }
+
+    private void unlock(Connection connection, String jobName) {
+        // The connection goes back to the pool afterwards, so the session must not keep the lock
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_unlock_all()");
+        } catch (SQLException e) {
+            // A failed unlock means the session is broken; Postgres drops its locks when the session ends
+            logger.warning("Failed to release scheduler lock for " + jobName + ": " + e.getMessage());
+        }
+    }
+}
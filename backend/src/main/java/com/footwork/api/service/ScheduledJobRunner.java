@@ -0,0 +1,118 @@
+package com.footwork.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Common wrapper for scheduled jobs.
+ * - Skip-if-running: a job still running from an earlier tick (or a manual trigger) is not started again.
+ * - Jitter: clustered jobs wait a random delay before racing for their lock, so nodes (and jobs sharing
+ *   a cron minute) don't all hit the database at the same instant.
+ * - Metrics per job: footwork.scheduler.job.duration, .failures, .skipped and a last-success timestamp gauge.
+ * - runClustered runs each tick on one node through ScheduledJobLockService; runLocal is for node-local work.
+ *   The tick is the minute the job fired in, read before the jitter, so clustered jobs must be cron-scheduled
+ *   (every node fires at the same wall-clock minute) and run at most once a minute.
+ * Exceptions are logged and counted here, so jobs don't need their own catch blocks.
+ */
+@Service
+public class ScheduledJobRunner {
+
+    private static final Logger logger = Logger.getLogger(ScheduledJobRunner.class.getName());
+
+    private final ScheduledJobLockService jobLockService;
+    private final MeterRegistry meterRegistry;
+    private final long maxJitterMs;
+    private final Clock clock;
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lastSuccess = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScheduledJobRunner(ScheduledJobLockService jobLockService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.scheduling.max-jitter-ms:5000}") long maxJitterMs) {
+        this(jobLockService, meterRegistry, maxJitterMs, Clock.systemUTC());
+    }
+
+    ScheduledJobRunner(ScheduledJobLockService jobLockService, MeterRegistry meterRegistry, long maxJitterMs, Clock clock) {
+        this.jobLockService = jobLockService;
+        this.meterRegistry = meterRegistry;
+        this.maxJitterMs = maxJitterMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Run a job whose work is shared through the database: jittered, then only on the node that claims this tick
+     */
+    public void runClustered(String jobName, Runnable task) {
+        long now = clock.millis();
+        long tick = now - now % TimeUnit.MINUTES.toMillis(1);
+        run(jobName, true, () -> {
+            if (!jobLockService.runTick(jobName, tick, task)) {
+                skipped(jobName, "lock");
+                return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Run a job that only touches this node's memory: no lock, no jitter
+     */
+    public void runLocal(String jobName, Runnable task) {
+        run(jobName, false, () -> {
+            task.run();
+            return true;
+        });
+    }
+
+    private void run(String jobName, boolean jitter, BooleanSupplier body) {
+        AtomicBoolean flag = running.computeIfAbsent(jobName, name -> new AtomicBoolean());
+        if (!flag.compareAndSet(false, true)) {
+            skipped(jobName, "running");
+            return;
+        }
+
+        try {
+            if (jitter && maxJitterMs > 0) {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(maxJitterMs + 1));
+            }
+            long start = System.nanoTime();
+            boolean ran = body.getAsBoolean();
+            if (ran) {
+                meterRegistry.timer("footwork.scheduler.job.duration", "job", jobName)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                lastSuccessGauge(jobName).set(System.currentTimeMillis() / 1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            meterRegistry.counter("footwork.scheduler.job.failures", "job", jobName).increment();
+            logger.severe("Scheduled job " + jobName + " failed: " + e.getMessage());
+        } finally {
+            flag.set(false);
+        }
+    }
+
+    private void skipped(String jobName, String reason) {
+        meterRegistry.counter("footwork.scheduler.job.skipped", "job", jobName, "reason", reason).increment();
+    }
+
+    // Epoch seconds of the last successful run, registered on first use
+    private AtomicLong lastSuccessGauge(String jobName) {
+        return lastSuccess.computeIfAbsent(jobName, name ->
+            meterRegistry.gauge("footwork.scheduler.job.last.success", Tags.of("job", name), new AtomicLong()));
+    }
+}
@@ -0,0 +1,229 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.DrillSessionEvent;
+import com.footwork.api.entity.SessionEventRequest;
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.repository.DailyPlanRepository;
+import com.footwork.api.repository.DrillSessionEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Per-drill session logging.
+ * Events are validated and queued in memory, then written to drill_session_events in JDBC batches
+ * by a short fixed-delay flush, so a burst of taps at the end of a session costs a few batched
+ * statements instead of one INSERT per event.
+ * Buffer space is reserved for a whole request up front, so a request is either queued in full or rejected.
+ * A batch the database rejects is retried a few times, then written row by row and the failing rows dropped.
+ */
+@Service
+public class SessionLogService {
+
+    private static final Logger logger = Logger.getLogger(SessionLogService.class.getName());
+
+    private static final String INSERT_SQL =
+        "INSERT INTO drill_session_events (user_id, daily_plan_id, drill_id, order_index, event_type, " +
+        "actual_minutes, rating, occurred_at, received_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DailyPlanRepository dailyPlanRepository;
+    private final DrillSessionEventRepository sessionEventRepository;
+    private final ScheduledJobRunner jobRunner;
+    private final BlockingQueue<DrillSessionEvent> buffer = new LinkedBlockingQueue<>();
+    // One permit per event accepted but not yet written (or dropped)
+    private final Semaphore capacity;
+    private final int bufferCapacity;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final int batchSize;
+    private final int maxWriteAttempts;
+
+    // Guarded by flushLock: the batch that last failed to write, retried before anything newer
+    private List<DrillSessionEvent> failedBatch = new ArrayList<>();
+    private int failedAttempts;
+
+    public SessionLogService(JdbcTemplate jdbcTemplate,
+                             DailyPlanRepository dailyPlanRepository,
+                             DrillSessionEventRepository sessionEventRepository,
+                             ScheduledJobRunner jobRunner,
+                             @Value("${app.sessions.buffer-capacity:10000}") int bufferCapacity,
+                             @Value("${app.sessions.batch-size:200}") int batchSize,
+                             @Value("${app.sessions.max-write-attempts:5}") int maxWriteAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dailyPlanRepository = dailyPlanRepository;
+        this.sessionEventRepository = sessionEventRepository;
+        this.jobRunner = jobRunner;
+        this.capacity = new Semaphore(bufferCapacity);
+        this.bufferCapacity = bufferCapacity;
+        this.batchSize = batchSize;
+        this.maxWriteAttempts = maxWriteAttempts;
+    }
+
+    /**
+     * Validate and queue events for a user. All events must refer to the user's own plans.
+     * Returns the number of events accepted.
+     */
+    public int recordEvents(UserInfo user, List<SessionEventRequest> requests) {
+        // Ownership of every referenced plan is checked with a single query
+        Set<Long> planIds = requests.stream().map(SessionEventRequest::getPlanId).collect(Collectors.toSet());
+        Set<Long> ownedPlanIds = new HashSet<>(dailyPlanRepository.findIdsByUserAndIdIn(user, planIds));
+        if (!ownedPlanIds.containsAll(planIds)) {
+            throw new SecurityException("You can only log sessions for your own plans");
+        }
+
+        LocalDateTime receivedAt = LocalDateTime.now();
+        List<DrillSessionEvent> events = new ArrayList<>(requests.size());
+        for (SessionEventRequest request : requests) {
+            DrillSessionEvent event = new DrillSessionEvent();
+            event.setUserId(user.getId());
+            event.setDailyPlanId(request.getPlanId());
+            event.setDrillId(request.getDrillId());
+            event.setOrderIndex(request.getOrderIndex());
+            event.setEventType(request.getEventType());
+            event.setActualMinutes(request.getActualMinutes());
+            event.setRating(request.getRating());
+            event.setOccurredAt(request.getOccurredAt() != null ? request.getOccurredAt() : receivedAt);
+            event.setReceivedAt(receivedAt);
+            events.add(event);
+        }
+        enqueueAll(events);
+        return events.size();
+    }
+
+    public List<DrillSessionEvent> getEventsForPlan(UserInfo user, Long planId) {
+        return sessionEventRepository.findByUserIdAndDailyPlanIdOrderByOccurredAtAsc(user.getId(), planId);
+    }
+
+    /**
+     * Events accepted but not yet written, including a batch waiting to be retried
+     */
+    public int getBufferedEventCount() {
+        return bufferCapacity - capacity.availablePermits();
+    }
+
+    private void enqueueAll(List<DrillSessionEvent> events) {
+        if (!capacity.tryAcquire(events.size())) {
+            // Buffer full: flush on the caller's thread once, then give up rather than grow without bound
+            flush();
+            if (!capacity.tryAcquire(events.size())) {
+                throw new SessionLogBufferFullException("Session log is busy. Please retry shortly.");
+            }
+        }
+        buffer.addAll(events);
+    }
+
+    // The buffer is this node's memory, so the flush is never cluster-locked
+    @Scheduled(fixedDelayString = "${app.sessions.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        jobRunner.runLocal("session-log-flush", this::flush);
+    }
+
+    /**
+     * Drain the buffer into the database in JDBC batches.
+     * Only one flush runs at a time; concurrent callers return immediately.
+     */
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!failedBatch.isEmpty() && !retryFailedBatch()) {
+                return; // Still failing; newer events wait behind it
+            }
+            List<DrillSessionEvent> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                if (!writeBatch(batch)) {
+                    // Database trouble; keep the batch aside and retry it on the next tick
+                    failedBatch = batch;
+                    failedAttempts = 1;
+                    return;
+                }
+                capacity.release(batch.size());
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Retry the batch that failed last time. After max-write-attempts the batch is written row by row,
+     * so one bad event (e.g. its plan was deleted meanwhile) cannot hold back the rest forever.
+     * Returns true when the flush can move on to newer events.
+     */
+    private boolean retryFailedBatch() {
+        int size = failedBatch.size();
+        if (!writeBatch(failedBatch)) {
+            failedAttempts++;
+            if (failedAttempts < maxWriteAttempts) {
+                return false;
+            }
+            int dropped = 0;
+            for (DrillSessionEvent event : failedBatch) {
+                if (!writeBatch(List.of(event))) {
+                    dropped++;
+                }
+            }
+            logger.severe("Dropped " + dropped + " of " + size + " session events after " + failedAttempts + " failed attempts");
+            if (dropped == size) {
+                // Nothing went through, so the database is likely down; don't hammer it with the next batch
+                clearFailedBatch(size);
+                return false;
+            }
+        }
+        clearFailedBatch(size);
+        return true;
+    }
+
+    private void clearFailedBatch(int size) {
+        failedBatch = new ArrayList<>();
+        failedAttempts = 0;
+        capacity.release(size);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean writeBatch(List<DrillSessionEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setInt(1, event.getUserId());
+                ps.setLong(2, event.getDailyPlanId());
+                ps.setObject(3, event.getDrillId(), Types.BIGINT);
+                ps.setObject(4, event.getOrderIndex(), Types.INTEGER);
+                ps.setString(5, event.getEventType());
+                ps.setObject(6, event.getActualMinutes(), Types.INTEGER);
+                ps.setObject(7, event.getRating(), Types.INTEGER);
+                ps.setObject(8, event.getOccurredAt());
+                ps.setObject(9, event.getReceivedAt());
+            });
+            return true;
+        } catch (Exception e) {
+            logger.warning("Failed to write " + batch.size() + " session events: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public static class SessionLogBufferFullException extends RuntimeException {
+        public SessionLogBufferFullException(String message) {
+            super(message);
+        }
+    }
+}
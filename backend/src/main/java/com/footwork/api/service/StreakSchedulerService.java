@@ -3,28 +3,39 @@ package com.footwork.api.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import java.time.Instant;
 import java.util.logging.Logger;
 
 @Service
 public class StreakSchedulerService {
     
     private static final Logger logger = Logger.getLogger(StreakSchedulerService.class.getName());
-    
+
     @Autowired
     private UserInfoService userInfoService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private ScheduledJobRunner jobRunner;
     
     /**
-     * Run streak check daily at 12:01 AM to ensure streaks are accurate
-     * This will reset any streaks that have been broken due to missed days
+     * Run streak check every 15 minutes (at :01, :16, :31, :46) to ensure streaks are accurate
+     * Each run only resets streaks in timezones whose local midnight has passed since they were last
+     * processed, so the nightly work is spread over the day in small per-offset buckets
      */
-    @Scheduled(cron = "0 1 0 * * ?") // Daily at 12:01 AM
+    @Scheduled(cron = "0 1/15 * * * ?")
     public void dailyStreakCheck() {
-        try {
-            logger.info("Starting daily streak check...");
-            userInfoService.checkAndResetBrokenStreaks();
-            logger.info("Daily streak check completed successfully");
-        } catch (Exception e) {
-            logger.severe("Error during daily streak check: " + e.getMessage());
-        }
+        // The database reset runs on one node per tick
+        jobRunner.runClustered("streak-bucket-reset", () -> {
+            int resetCount = userInfoService.resetBrokenStreaksAtLocalMidnight(Instant.now());
+            if (resetCount > 0) {
+                logger.info("Streak check completed successfully: " + resetCount + " streaks reset");
+            }
+        });
+        // Every node keeps its own leaderboard copy, so this part is never locked
+        jobRunner.runLocal("leaderboard-evict-broken", leaderboardService::evictBroken);
     }
 }
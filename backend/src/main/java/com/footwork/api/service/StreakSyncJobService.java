@@ -0,0 +1,262 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.StreakSyncJobStatus;
+import com.footwork.api.repository.UserInfoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Admin streak sync as a background job.
+ * Users holding a streak are read in keyset-paginated id chunks; each chunk is reset in its own short
+ * transaction on a bounded worker pool. Only one job runs at a time across the cluster: the job holds a
+ * ScheduledJobLockService lock while it runs. Progress is kept in memory on the node running the job.
+ */
+@Service
+public class StreakSyncJobService {
+
+    private static final Logger logger = Logger.getLogger(StreakSyncJobService.class.getName());
+    private static final int RETAINED_JOBS = 20;
+    private static final String LOCK_NAME = "streak-sync";
+
+    private final UserInfoRepository userInfoRepository;
+    private final LeaderboardService leaderboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledJobLockService jobLockService;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "streak-sync-coordinator"));
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicReference<Job> activeJob = new AtomicReference<>();
+    private final Map<String, Job> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    };
+
+    public StreakSyncJobService(UserInfoRepository userInfoRepository,
+                                LeaderboardService leaderboardService,
+                                TransactionTemplate transactionTemplate,
+                                ScheduledJobLockService jobLockService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.streaks.sync.chunk-size:1000}") int chunkSize,
+                                @Value("${app.streaks.sync.threads:4}") int threads) {
+        this.userInfoRepository = userInfoRepository;
+        this.leaderboardService = leaderboardService;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLockService = jobLockService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        // Bounded queue + caller-runs: when workers fall behind, the coordinator processes a chunk itself
+        // instead of paging further ahead, so memory stays flat however many users there are
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 2), r -> new Thread(r, "streak-sync-worker"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Start a sync job and return its status immediately.
+     * Throws JobAlreadyRunningException if one is active: carrying its id when it runs on this node,
+     * without one when another node holds the lock.
+     */
+    public StreakSyncJobStatus start() {
+        Job job = new Job(UUID.randomUUID().toString(), Instant.now());
+        if (!activeJob.compareAndSet(null, job)) {
+            Job running = activeJob.get();
+            throw new JobAlreadyRunningException(running != null ? running.id : null);
+        }
+
+        // The lock lives on the coordinator's connection for the whole run, so wait there until it is decided
+        CompletableFuture<Boolean> locked = new CompletableFuture<>();
+        coordinator.submit(() -> {
+            try {
+                jobLockService.runExclusively(LOCK_NAME, () -> {
+                    synchronized (jobs) {
+                        jobs.put(job.id, job);
+                    }
+                    locked.complete(true);
+                    run(job);
+                });
+            } finally {
+                // Cleared before a refused start returns, so a retry is not turned away by this attempt
+                activeJob.compareAndSet(job, null);
+                locked.complete(false); // No-op once the job has started
+            }
+        });
+        if (!awaitLock(locked)) {
+            throw new JobAlreadyRunningException(null);
+        }
+        return toStatus(job);
+    }
+
+    private boolean awaitLock(CompletableFuture<Boolean> locked) {
+        try {
+            return locked.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while starting streak sync", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to start streak sync", e.getCause());
+        }
+    }
+
+    public StreakSyncJobStatus getStatus(String jobId) {
+        synchronized (jobs) {
+            Job job = jobs.get(jobId);
+            return job != null ? toStatus(job) : null;
+        }
+    }
+
+    private void run(Job job) {
+        List<Future<?>> pending = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            job.totalUsers = userInfoRepository.countByStreakGreaterThan(0);
+            int afterId = 0;
+            while (true) {
+                List<Integer> ids = userInfoRepository.findStreakUserIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                pending.add(workers.submit(() -> processChunk(job, ids)));
+                // Collect finished chunks as we go so the list does not grow with the table
+                collect(pending, failures, false);
+            }
+            collect(pending, failures, true);
+            if (failures.isEmpty()) {
+                job.status = "COMPLETED";
+                logger.info("Streak sync job " + job.id + " completed: " + job.resetUsers.get() + " of "
+                    + job.processedUsers.get() + " users reset");
+            } else {
+                // Other chunks were still applied; report how many did not make it and the first cause
+                fail(job, new RuntimeException(failures.size() + " chunk(s) failed, first error: "
+                    + failures.get(0).getMessage(), failures.get(0)));
+            }
+        } catch (Exception e) {
+            fail(job, e);
+        } finally {
+            job.finishedAt = Instant.now();
+            meterRegistry.timer("footwork.streaks.sync").record(Duration.between(job.startedAt, job.finishedAt));
+        }
+    }
+
+    /**
+     * Take finished chunk futures off the list, recording any chunk that threw.
+     * With waitForAll, blocks until every pending chunk has finished.
+     */
+    private void collect(List<Future<?>> pending, List<Throwable> failures, boolean waitForAll) throws InterruptedException {
+        Iterator<Future<?>> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Future<?> future = iterator.next();
+            if (!waitForAll && !future.isDone()) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warning("Streak sync chunk failed: " + cause.getMessage());
+                failures.add(cause);
+            }
+            iterator.remove();
+        }
+    }
+
+    private void processChunk(Job job, List<Integer> ids) {
+        List<Integer> resetIds = transactionTemplate.execute(status -> userInfoRepository.resetBrokenStreaksForIds(ids));
+        if (resetIds != null) {
+            resetIds.forEach(leaderboardService::remove);
+            job.resetUsers.addAndGet(resetIds.size());
+        }
+        job.processedUsers.addAndGet(ids.size());
+    }
+
+    private void fail(Job job, Throwable cause) {
+        job.status = "FAILED";
+        job.error = cause.getMessage();
+        logger.severe("Streak sync job " + job.id + " failed: " + cause.getMessage());
+    }
+
+    private StreakSyncJobStatus toStatus(Job job) {
+        Instant end = job.finishedAt != null ? job.finishedAt : Instant.now();
+        double seconds = Math.max(Duration.between(job.startedAt, end).toMillis(), 1) / 1000.0;
+        long processed = job.processedUsers.get();
+        double rate = processed / seconds;
+        Long eta = null;
+        if (job.finishedAt == null && rate > 0) {
+            eta = (long) Math.ceil(Math.max(job.totalUsers - processed, 0) / rate);
+        }
+        return new StreakSyncJobStatus(
+            job.id,
+            job.status,
+            job.startedAt.toString(),
+            job.finishedAt != null ? job.finishedAt.toString() : null,
+            job.totalUsers,
+            processed,
+            job.resetUsers.get(),
+            rate,
+            eta,
+            job.error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static class Job {
+        private final String id;
+        private final Instant startedAt;
+        private volatile String status = "RUNNING";
+        private volatile Instant finishedAt;
+        private volatile long totalUsers;
+        private volatile String error;
+        private final AtomicLong processedUsers = new AtomicLong();
+        private final AtomicLong resetUsers = new AtomicLong();
+
+        Job(String id, Instant startedAt) {
+            this.id = id;
+            this.startedAt = startedAt;
+        }
+    }
+
+    public static class JobAlreadyRunningException extends RuntimeException {
+        private final String jobId;
+
+        public JobAlreadyRunningException(String jobId) {
+            super("A streak sync job is already running");
+            this.jobId = jobId;
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+    }
+}
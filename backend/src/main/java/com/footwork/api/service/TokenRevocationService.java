@@ -1,84 +1,194 @@
 package com.footwork.api.service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Date;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
-import java.util.Set;
-import java.util.HashSet;
-import java.util.Map;
 
+/**
+ * Token revocation without per-token bookkeeping.
+ * Every token carries a jti and the user's token generation at the time it was issued (the gen claim).
+ * Revoking all of a user's tokens moves the generation forward, so any token with an older gen is
+ * rejected with one map lookup; revoking a single token stores only its jti until the token expires.
+ * Memory therefore scales with users who revoked recently, not with tokens issued.
+ *
+ * The maps here are a per-node front that every check reads; the RevocationStore is the system of record.
+ * Each revocation is written to the store, applied locally and broadcast through ClusterNotifier so other
+ * nodes apply it too. The front is loaded from the store once this node is LISTENing (ClusterNotifier sends
+ * ALL then, and again after a missed broadcast), or at startup when cluster notifications are off.
+ *
+ * Every entry is queued for removal at the moment it stops mattering: a revoked jti at its token's exp,
+ * a generation once the longest-lived token issued before it has expired. A single reaper thread takes
+ * entries off a DelayQueue as they come due, so the maps never need a periodic full scan.
+ */
 @Service
 public class TokenRevocationService {
     
     private static final Logger logger = Logger.getLogger(TokenRevocationService.class.getName());
+
+    // No token outlives this, so older generations and revoked jtis can be forgotten after it
+    private static final long MAX_TOKEN_LIFETIME_MS = JwtService.REFRESH_TOKEN_VALIDITY_MS;
+
+    static final String CHANNEL = "footwork_token_revocations";
+    // Payloads: "J|<expiresAt>|<tokenId>" for one token, "G|<generation>|<email>" for revoke-all
+    private static final String TOKEN_MESSAGE = "J";
+    private static final String GENERATION_MESSAGE = "G";
+
+    // jti (or the raw token for tokens issued before jti existed) -> token expiry in epoch millis
     private final ConcurrentMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
-    
-    // Track which user each token belongs to for better revocation management
-    private final ConcurrentMap<String, String> tokenUserMapping = new ConcurrentHashMap<>();
-    
-    public void revokeToken(String token) {
-        if (token == null || token.trim().isEmpty()) {
-            logger.warning("Attempted to revoke null or empty token");
-            return;
+
+    // email -> current token generation. The generation is the epoch millis of the last revoke-all
+    // (kept strictly increasing), so dropping an old entry can never make a revoked token valid again
+    private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    private final DelayQueue<Expiry> expiryQueue = new DelayQueue<>();
+    private volatile boolean running;
+    private Thread reaper;
+
+    @Autowired
+    private ScheduledJobRunner jobRunner;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RevocationStore revocationStore;
+
+    // Most checked tokens are not revoked; the filter answers those without touching revokedTokens
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Autowired
+    private ClusterNotifier clusterNotifier;
+
+    @PostConstruct
+    void start() {
+        clusterNotifier.subscribe(CHANNEL, this::applyRemote);
+        running = true;
+        reaper = new Thread(this::reapExpired, "token-revocation-expiry");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (reaper != null) {
+            reaper.interrupt();
         }
-        
-        Long previousRevocation = revokedTokens.put(token, System.currentTimeMillis());
-        if (previousRevocation != null) {
-            logger.info("Token was already revoked at: " + previousRevocation);
-        } else {
-            logger.info("Token revoked successfully at: " + System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        // With notifications on, loading before LISTEN could miss a revocation; the ALL that follows LISTEN loads instead
+        if (!clusterNotifier.isEnabled()) {
+            reload();
         }
     }
-    
-    public void revokeTokenForUser(String token, String userEmail) {
-        if (token == null || token.trim().isEmpty()) {
-            logger.warning("Attempted to revoke null or empty token");
-            return;
+
+    /**
+     * Load revocations that are still in force from the store, e.g. after a restart
+     */
+    public void reload() {
+        long now = System.currentTimeMillis();
+        Map<String, Long> tokens = revocationStore.findActiveRevokedTokens(now);
+        Map<String, Long> userGenerations = revocationStore.findGenerationsSince(now - MAX_TOKEN_LIFETIME_MS);
+        tokens.forEach(this::addRevoked);
+        userGenerations.forEach(this::applyGeneration);
+        if (!tokens.isEmpty() || !userGenerations.isEmpty()) {
+            logger.info("Loaded " + tokens.size() + " revoked tokens and " + userGenerations.size() + " user generations");
         }
-        
-        // Store the user-token mapping
-        tokenUserMapping.put(token, userEmail);
-        
-        // Revoke the token
-        Long previousRevocation = revokedTokens.put(token, System.currentTimeMillis());
-        if (previousRevocation != null) {
-            logger.info("Token was already revoked at: " + previousRevocation);
-        } else {
-            logger.info("Token revoked successfully for user: " + userEmail + " at: " + System.currentTimeMillis());
+    }
+
+    /**
+     * Generation this node currently enforces for the user; 0 if they never revoked
+     */
+    public long getTokenGeneration(String userEmail) {
+        if (userEmail == null) {
+            return 0L;
+        }
+        return generations.getOrDefault(userEmail, 0L);
+    }
+
+    /**
+     * Generation to stamp into a newly issued token for this user. Read from the store, since the front
+     * may not have received another node's revoke-all yet and a token stamped below it would be rejected there.
+     */
+    public long getIssueGeneration(String userEmail) {
+        if (userEmail == null) {
+            return 0L;
+        }
+        long stored = revocationStore.findGeneration(userEmail);
+        // Catch the front up, unless the row may be our own uncommitted write (the revoker applies that on commit)
+        if (stored > 0 && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            applyGeneration(userEmail, stored);
         }
+        return Math.max(stored, getTokenGeneration(userEmail));
     }
     
     /**
-     * Track a token for a user without revoking it
-     * This is used when generating new tokens to maintain the user-token mapping
+     * Revoke a single token until it expires
      */
-    public void trackTokenForUser(String token, String userEmail) {
-        if (token == null || token.trim().isEmpty()) {
-            logger.warning("Attempted to track null or empty token");
+    public void revokeToken(VerifiedToken token) {
+        if (token == null) {
+            logger.warning("Attempted to revoke null token");
             return;
         }
+        if (token.isExpired() || isRevokedByGeneration(token)) {
+            return; // Already unusable, nothing to remember
+        }
         
-        // Store the user-token mapping without revoking
-        tokenUserMapping.put(token, userEmail);
-        logger.info("Token tracked for user: " + userEmail);
-    }
-    
-    public boolean isTokenRevoked(String token) {
-        if (token == null || token.trim().isEmpty()) {
-            return true; // Consider null/empty tokens as revoked
+        long expiresAt = token.getExpiration() != null
+            ? token.getExpiration().getTime()
+            : System.currentTimeMillis() + MAX_TOKEN_LIFETIME_MS;
+        String tokenId = revocationKey(token);
+        revocationStore.saveRevokedToken(tokenId, token.getSubject(), expiresAt);
+        revokedTokenFilter.add(tokenId, expiresAt);
+        Long previousRevocation = revokedTokens.put(tokenId, expiresAt);
+        if (previousRevocation == null) {
+            expiryQueue.put(new Expiry(tokenId, expiresAt, false));
+        }
+        verifiedTokenCache.evict(token.getToken());
+        clusterNotifier.publish(CHANNEL, TOKEN_MESSAGE + "|" + expiresAt + "|" + tokenId);
+        if (previousRevocation != null) {
+            logger.info("Token was already revoked");
+        } else {
+            logger.info("Token revoked successfully for user: " + token.getSubject());
         }
-        return revokedTokens.containsKey(token);
     }
     
-    public Long getTokenRevocationTime(String token) {
-        return revokedTokens.get(token);
+    public boolean isTokenRevoked(VerifiedToken token) {
+        if (token == null || token.getSubject() == null) {
+            return true; // Consider tokens without an owner as revoked
+        }
+        return isRevokedByGeneration(token) || isRevokedById(revocationKey(token), token.getExpiration());
     }
     
     public int getRevokedTokenCount() {
         return revokedTokens.size();
     }
+
+    public int getTrackedUserCount() {
+        return generations.size();
+    }
+
+    public int getPendingExpiryCount() {
+        return expiryQueue.size();
+    }
     
     /**
      * Revoke all tokens for a specific user
@@ -90,20 +200,9 @@ public class TokenRevocationService {
             return;
         }
         
-        int revokedCount = 0;
-        
-        // Find all tokens belonging to this user and revoke them
-        for (Map.Entry<String, String> entry : tokenUserMapping.entrySet()) {
-            if (userEmail.equals(entry.getValue())) {
-                String token = entry.getKey();
-                if (!revokedTokens.containsKey(token)) {
-                    revokedTokens.put(token, System.currentTimeMillis());
-                    revokedCount++;
-                }
-            }
-        }
+        long generation = advanceGeneration(userEmail);
         
-        logger.info("Revoked " + revokedCount + " tokens for user: " + userEmail);
+        logger.info("Revoked all tokens for user: " + userEmail + " (generation " + generation + ")");
     }
 
     /**
@@ -116,108 +215,152 @@ public class TokenRevocationService {
             return;
         }
         
-        int revokedCount = 0;
+        long generation = advanceGeneration(userEmail);
         
-        // Find all tokens belonging to this user and revoke them
-        for (Map.Entry<String, String> entry : tokenUserMapping.entrySet()) {
-            if (userEmail.equals(entry.getValue())) {
-                String token = entry.getKey();
-                if (!revokedTokens.containsKey(token)) {
-                    revokedTokens.put(token, System.currentTimeMillis());
-                    revokedCount++;
-                    logger.info("Revoked token during logout for user: " + userEmail);
+        logger.info("Logout completed - revoked all tokens for user: " + userEmail + " (generation " + generation + ")");
+    }
+    
+    // The store is shared, so one node a day prunes it
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void scheduledStoreCleanup() {
+        jobRunner.runClustered("revocation-store-cleanup", () -> {
+            long now = System.currentTimeMillis();
+            int removed = revocationStore.deleteExpired(now, now - MAX_TOKEN_LIFETIME_MS);
+            logger.info("Revocation store cleanup removed " + removed + " entries");
+        });
+    }
+    
+    private long advanceGeneration(String userEmail) {
+        long minimum = Math.max(System.currentTimeMillis(), getTokenGeneration(userEmail) + 1);
+        long generation = revocationStore.advanceGeneration(userEmail, minimum);
+        // Inside a transaction the store write and the NOTIFY only count on commit, so the local front waits too
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyGeneration(userEmail, generation);
                 }
-            }
+            });
+        } else {
+            applyGeneration(userEmail, generation);
         }
-        
-        logger.info("Logout completed - revoked " + revokedCount + " tokens for user: " + userEmail);
+        clusterNotifier.publish(CHANNEL, GENERATION_MESSAGE + "|" + generation + "|" + userEmail);
+        return generation;
     }
-    
-    /**
-     * Get all revoked tokens for a specific user
-     */
-    public Set<String> getRevokedTokensForUser(String userEmail) {
-        Set<String> userRevokedTokens = new HashSet<>();
-        
-        for (Map.Entry<String, String> entry : tokenUserMapping.entrySet()) {
-            if (userEmail.equals(entry.getValue()) && revokedTokens.containsKey(entry.getKey())) {
-                userRevokedTokens.add(entry.getKey());
+
+    private void applyRemote(String payload) {
+        if (ClusterNotifier.ALL.equals(payload)) {
+            reload();
+            return;
+        }
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            logger.warning("Ignoring malformed revocation message");
+            return;
+        }
+        long value = Long.parseLong(parts[1]);
+        if (TOKEN_MESSAGE.equals(parts[0])) {
+            addRevoked(parts[2], value);
+        } else if (GENERATION_MESSAGE.equals(parts[0])) {
+            applyGeneration(parts[2], value);
+        }
+    }
+
+    private void applyGeneration(String userEmail, long generation) {
+        // Only a generation that became current gets an expiry; a repeat (our own broadcast, a reload) would queue a duplicate
+        AtomicBoolean raised = new AtomicBoolean();
+        generations.compute(userEmail, (email, current) -> {
+            if (current != null && current >= generation) {
+                return current;
             }
+            raised.set(true);
+            return generation;
+        });
+        if (raised.get()) {
+            expiryQueue.put(new Expiry(userEmail, generation + MAX_TOKEN_LIFETIME_MS, true));
         }
-        
-        return userRevokedTokens;
     }
 
-    /**
-     * Get the count of active (non-revoked) tokens for a specific user
-     */
-    public int getActiveTokenCountForUser(String userEmail) {
-        if (userEmail == null || userEmail.trim().isEmpty()) {
-            return 0;
+    private void addRevoked(String tokenId, long expiresAt) {
+        // Filter first, so a concurrent check never finds the id in the map but not in the filter
+        revokedTokenFilter.add(tokenId, expiresAt);
+        if (revokedTokens.putIfAbsent(tokenId, expiresAt) == null) {
+            expiryQueue.put(new Expiry(tokenId, expiresAt, false));
         }
-        
-        int activeCount = 0;
-        
-        for (Map.Entry<String, String> entry : tokenUserMapping.entrySet()) {
-            if (userEmail.equals(entry.getValue()) && !revokedTokens.containsKey(entry.getKey())) {
-                activeCount++;
+    }
+
+    private void reapExpired() {
+        while (running) {
+            try {
+                expiryQueue.take().remove(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warning("Failed to expire revocation entry: " + e.getMessage());
             }
         }
-        
-        return activeCount;
+    }
+
+    private boolean isRevokedById(String tokenId, Date expiration) {
+        if (expiration == null) {
+            return revokedTokens.containsKey(tokenId); // No exp, so no slice to probe
+        }
+        if (!revokedTokenFilter.mightContain(tokenId, expiration.getTime())) {
+            return false;
+        }
+        boolean revoked = revokedTokens.containsKey(tokenId);
+        if (!revoked) {
+            revokedTokenFilter.recordFalsePositive();
+        }
+        return revoked;
+    }
+
+    private boolean isRevokedByGeneration(VerifiedToken token) {
+        Long tokenGeneration = token.getGeneration();
+        // Tokens from before generations existed count as generation 0
+        long issuedGeneration = tokenGeneration != null ? tokenGeneration : 0L;
+        return issuedGeneration < getTokenGeneration(token.getSubject());
+    }
+
+    private static String revocationKey(VerifiedToken token) {
+        return token.getId() != null ? token.getId() : token.getToken();
     }
 
     /**
-     * Get the count of revoked tokens for a specific user
+     * One map entry due for removal at expiresAt. Removal is conditional on the value the entry was
+     * queued for, so a generation that has since moved forward (or a re-revoked id) is left alone.
      */
-    public int getRevokedTokenCountForUser(String userEmail) {
-        if (userEmail == null || userEmail.trim().isEmpty()) {
-            return 0;
+    private static final class Expiry implements Delayed {
+        private final String key;
+        private final long expiresAt;
+        private final boolean generation;
+
+        Expiry(String key, long expiresAt, boolean generation) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+            this.generation = generation;
         }
-        
-        int revokedCount = 0;
-        
-        for (Map.Entry<String, String> entry : tokenUserMapping.entrySet()) {
-            if (userEmail.equals(entry.getValue()) && revokedTokens.containsKey(entry.getKey())) {
-                revokedCount++;
+
+        void remove(TokenRevocationService service) {
+            if (generation) {
+                service.generations.remove(key, expiresAt - MAX_TOKEN_LIFETIME_MS);
+            } else {
+                service.revokedTokens.remove(key, expiresAt);
             }
         }
-        
-        return revokedCount;
-    }
-    
-    // Clean up old revoked tokens (for memory management)
-    public void cleanupOldRevokedTokens() {
-        long currentTime = System.currentTimeMillis();
-        long maxAge = 7 * 24 * 60 * 60 * 1000L; // 7 days in milliseconds
-        
-        int beforeSize = revokedTokens.size();
-        int beforeMappingSize = tokenUserMapping.size();
-        
-        // Remove old revoked tokens
-        revokedTokens.entrySet().removeIf(entry -> 
-            (currentTime - entry.getValue()) > maxAge
-        );
-        
-        // Clean up corresponding user mappings
-        tokenUserMapping.entrySet().removeIf(entry -> 
-            !revokedTokens.containsKey(entry.getKey())
-        );
-        
-        int afterSize = revokedTokens.size();
-        int afterMappingSize = tokenUserMapping.size();
-        
-        if (beforeSize != afterSize || beforeMappingSize != afterMappingSize) {
-            logger.info("Cleaned up " + (beforeSize - afterSize) + " old revoked tokens and " + 
-                       (beforeMappingSize - afterMappingSize) + " user mappings");
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Expiry) {
+                return Long.compare(expiresAt, ((Expiry) other).expiresAt);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
         }
     }
-    
-    // Automatically clean up old revoked tokens every hour
-    @Scheduled(fixedRate = 60 * 60 * 1000) // 1 hour in milliseconds
-    public void scheduledCleanup() {
-        logger.info("Running scheduled cleanup of revoked tokens. Current count: " + revokedTokens.size());
-        cleanupOldRevokedTokens();
-        logger.info("Scheduled cleanup completed. Current count: " + revokedTokens.size());
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.footwork.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL'd cache in front of UserInfoService.loadUserByUsername, keyed by email.
+ * Callers that change anything a UserInfoDetails holds (email, password, roles, security version)
+ * must call invalidate. The entry is dropped immediately and again after the surrounding transaction
+ * commits, so a concurrent request cannot re-cache the old row. With app.cluster.enabled, other
+ * nodes are told through ClusterNotifier.
+ */
+@Component
+public class UserDetailsCache {
+
+    static final String CHANNEL = "footwork_user_details";
+
+    private final Cache<String, UserInfoDetails> cache;
+    private final ClusterNotifier clusterNotifier;
+
+    public UserDetailsCache(@Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${app.security.user-cache.ttl-seconds:300}") long ttlSeconds,
+                            MeterRegistry meterRegistry,
+                            ClusterNotifier clusterNotifier) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        this.clusterNotifier = clusterNotifier;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.details");
+        clusterNotifier.subscribe(CHANNEL, this::evictLocal);
+    }
+
+    /**
+     * Cached details for an email, loading on a miss. Loader exceptions (user not found) are not cached.
+     */
+    public UserInfoDetails get(String email, Function<String, UserInfoDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        evictLocal(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(email);
+                }
+            });
+        }
+        // Inside a transaction the NOTIFY is only delivered on commit
+        clusterNotifier.publish(CHANNEL, email);
+    }
+
+    private void evictLocal(String email) {
+        if (ClusterNotifier.ALL.equals(email)) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(email);
+        }
+    }
+}
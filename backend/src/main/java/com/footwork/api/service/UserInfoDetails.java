@@ -12,11 +12,15 @@ import com.footwork.api.entity.UserInfo;
 
 public class UserInfoDetails implements UserDetails {
 
+  private Integer userId;
+  private int securityVersion;
   private String email;
   private String password;
   private List<GrantedAuthority> authorities;
 
   public UserInfoDetails(UserInfo userInfo) {
+    this.userId = userInfo.getId();
+    this.securityVersion = userInfo.getSecurityVersion();
     this.email = userInfo.getEmail();
     this.password = userInfo.getPassword();
     String role = userInfo.getRoles().startsWith("ROLE_") ? userInfo.getRoles() : "ROLE_" + userInfo.getRoles();
@@ -25,6 +29,14 @@ public class UserInfoDetails implements UserDetails {
         .collect(Collectors.toList());
   }
 
+  public Integer getUserId() {
+    return userId;
+  }
+
+  public int getSecurityVersion() {
+    return securityVersion;
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return authorities;
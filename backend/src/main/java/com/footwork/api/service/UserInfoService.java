@@ -1,11 +1,27 @@
 package com.footwork.api.service;
 
+import java.time.DateTimeException;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -17,41 +33,69 @@ import com.footwork.api.entity.ProfileSetupRequest;
 import com.footwork.api.entity.UserUpdateRequest;
 import com.footwork.api.entity.PasswordUpdateRequest;
 import com.footwork.api.entity.DeleteUserRequest;
-import com.footwork.api.entity.DailyPlan;
 import com.footwork.api.repository.UserInfoRepository;
 import com.footwork.api.repository.DailyPlanRepository;
+import com.footwork.api.repository.DrillSessionEventRepository;
 import com.footwork.api.repository.PlanDrillRepository;
+import com.footwork.api.repository.StreakResetCutoffRepository;
 import com.footwork.api.entity.UserProfileResponse;
+import com.footwork.api.entity.CompletionCalendarResponse;
+import com.footwork.api.entity.CompletionRun;
+import com.footwork.api.entity.StreakResetCutoff;
 
 @Service
-public class UserInfoService implements UserDetailsService {
+public class UserInfoService implements UserDetailsService, UserDetailsPasswordService {
 
   private static final Logger logger = Logger.getLogger(UserInfoService.class.getName());
+  private static final ZoneId DEFAULT_ZONE = ZoneId.of("UTC");
+  // Every id validateTimezone can store, so the streak reset never has to ask the user table which zones are in use
+  private static final Map<String, ZoneId> KNOWN_ZONES = knownZones();
   private final UserInfoRepository repository;
   private final DailyPlanRepository dailyPlanRepository;
   private final PlanDrillRepository planDrillRepository;
+  private final DrillSessionEventRepository drillSessionEventRepository;
+  private final StreakResetCutoffRepository streakResetCutoffRepository;
   private final PasswordEncoder passwordEncoder;
   private final TokenRevocationService tokenRevocationService;
   private final EmailVerificationService emailVerificationService;
+  private final CompletionCalendarService completionCalendarService;
+  private final LeaderboardService leaderboardService;
+  private final UserDetailsCache userDetailsCache;
+  private final MeterRegistry meterRegistry;
+  private final Timer streakResetTimer;
 
   public UserInfoService(UserInfoRepository repository, DailyPlanRepository dailyPlanRepository, 
-                        PlanDrillRepository planDrillRepository, PasswordEncoder passwordEncoder,
-                        TokenRevocationService tokenRevocationService, EmailVerificationService emailVerificationService) {
+                        PlanDrillRepository planDrillRepository, DrillSessionEventRepository drillSessionEventRepository,
+                        StreakResetCutoffRepository streakResetCutoffRepository,
+                        PasswordEncoder passwordEncoder,
+                        TokenRevocationService tokenRevocationService, EmailVerificationService emailVerificationService,
+                        CompletionCalendarService completionCalendarService, LeaderboardService leaderboardService,
+                        UserDetailsCache userDetailsCache, MeterRegistry meterRegistry) {
     this.repository = repository;
     this.dailyPlanRepository = dailyPlanRepository;
     this.planDrillRepository = planDrillRepository;
+    this.drillSessionEventRepository = drillSessionEventRepository;
+    this.streakResetCutoffRepository = streakResetCutoffRepository;
     this.passwordEncoder = passwordEncoder;
     this.tokenRevocationService = tokenRevocationService;
     this.emailVerificationService = emailVerificationService;
+    this.completionCalendarService = completionCalendarService;
+    this.leaderboardService = leaderboardService;
+    this.userDetailsCache = userDetailsCache;
+    this.meterRegistry = meterRegistry;
+    this.streakResetTimer = meterRegistry.timer("footwork.streaks.reset");
   }
 
   @Override
-  public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-    Optional<UserInfo> userDetail = repository.findByEmail(email);
-    if (userDetail.isEmpty()) {
-      throw new UsernameNotFoundException("User not found with email: " + email);
-    }
-    return new UserInfoDetails(userDetail.get());
+  public UserInfoDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+    // Cached; every change to email, password or roles goes through userDetailsCache.invalidate
+    return userDetailsCache.get(email, key -> {
+      Optional<UserInfo> userDetail = repository.findByEmail(key);
+      if (userDetail.isEmpty()) {
+        throw new UsernameNotFoundException("User not found with email: " + key);
+      }
+      return new UserInfoDetails(userDetail.get());
+    });
   }
 
   public String addUser(UserInfo userInfo) {
@@ -79,28 +123,22 @@ public class UserInfoService implements UserDetailsService {
     return repository.findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(query, query);
   }
   
-  public UserInfo setupProfile(String email, ProfileSetupRequest request) {
-    Optional<UserInfo> userOptional = repository.findByEmail(email);
-    if (userOptional.isEmpty()) {
-      throw new UsernameNotFoundException("User not found with email: " + email);
-    }
-    
-    UserInfo user = userOptional.get();
+  public UserInfo setupProfile(UserInfo user, ProfileSetupRequest request) {
     user.setAge(request.getAge());
     user.setExperienceLevel(request.getExperienceLevel());
     user.setPrimaryPosition(request.getPrimaryPosition());
+    if (request.getTimezone() != null) {
+      user.setTimezone(validateTimezone(request.getTimezone()));
+    }
     user.setProfileCompleted(true);
     
-    return repository.save(user);
+    UserInfo savedUser = repository.save(user);
+    leaderboardService.updateProfile(savedUser);
+    return savedUser;
   }
   
-  public UserInfo updateUser(String currentEmail, UserUpdateRequest request) {
-    Optional<UserInfo> userOptional = repository.findByEmail(currentEmail);
-    if (userOptional.isEmpty()) {
-      throw new UsernameNotFoundException("User not found with email: " + currentEmail);
-    }
-    
-    UserInfo user = userOptional.get();
+  public UserInfo updateUser(UserInfo user, UserUpdateRequest request) {
+    String currentEmail = user.getEmail();
     boolean emailChanged = false;
     
     // Only update fields that are provided (not null)
@@ -119,8 +157,10 @@ public class UserInfoService implements UserDetailsService {
       user.setEmail(request.getEmail());
     }
     
-    if (request.getRoles() != null) {
+    boolean rolesChanged = false;
+    if (request.getRoles() != null && !request.getRoles().equals(user.getRoles())) {
       user.setRoles(request.getRoles());
+      rolesChanged = true;
     }
     
     if (request.getAge() != null) {
@@ -135,9 +175,24 @@ public class UserInfoService implements UserDetailsService {
       user.setPrimaryPosition(request.getPrimaryPosition());
     }
     
+    if (request.getTimezone() != null) {
+      user.setTimezone(validateTimezone(request.getTimezone()));
+    }
+    
     user.setProfileCompleted(true);
     
+    // Access tokens carry email and roles, so either change makes existing tokens stale
+    if (emailChanged || rolesChanged) {
+      user.setSecurityVersion(user.getSecurityVersion() + 1);
+    }
+    
     UserInfo savedUser = repository.save(user);
+    leaderboardService.updateProfile(savedUser);
+    
+    if (emailChanged || rolesChanged) {
+      userDetailsCache.invalidate(currentEmail);
+      userDetailsCache.invalidate(savedUser.getEmail());
+    }
     
     // If email changed, we need to revoke existing tokens
     if (emailChanged) {
@@ -145,19 +200,15 @@ public class UserInfoService implements UserDetailsService {
       savedUser.setEmailChanged(true);
       tokenRevocationService.revokeAllTokensForUser(currentEmail);
       logger.info("Email changed from " + currentEmail + " to " + savedUser.getEmail() + ". Tokens revoked.");
+    } else if (rolesChanged) {
+      tokenRevocationService.revokeAllTokensForUser(currentEmail);
+      logger.info("Roles changed for " + currentEmail + ". Tokens revoked.");
     }
     
     return savedUser;
   }
   
-  public void updatePassword(String email, PasswordUpdateRequest request) {
-    Optional<UserInfo> userOptional = repository.findByEmail(email);
-    if (userOptional.isEmpty()) {
-      throw new UsernameNotFoundException("User not found with email: " + email);
-    }
-    
-    UserInfo user = userOptional.get();
-    
+  public void updatePassword(UserInfo user, PasswordUpdateRequest request) {
     // Verify current password
     if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
       throw new RuntimeException("Current password is incorrect");
@@ -166,8 +217,26 @@ public class UserInfoService implements UserDetailsService {
     // Update password
     user.setPassword(passwordEncoder.encode(request.getNewPassword()));
     repository.save(user);
+    userDetailsCache.invalidate(user.getEmail());
+  }
+
+  /**
+   * Store a rehash of the password the user just logged in with (BCrypt cost changed).
+   * Called by DaoAuthenticationProvider; if the password was changed meanwhile, the rehash is dropped.
+   */
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    String email = user.getUsername();
+    if (repository.replacePasswordHash(email, user.getPassword(), newPassword) == 0) {
+      return user;
+    }
+    userDetailsCache.invalidate(email);
+    logger.info("Password hash upgraded for user: " + email);
+    return loadUserByUsername(email);
   }
   
+  @Transactional(readOnly = true)
   public UserInfo getUserByEmail(String email) {
     Optional<UserInfo> userOptional = repository.findByEmail(email);
     if (userOptional.isEmpty()) {
@@ -176,15 +245,44 @@ public class UserInfoService implements UserDetailsService {
     return userOptional.get();
   }
   
-  @Transactional
-  public void deleteUser(String email, DeleteUserRequest request) {
-    Optional<UserInfo> userOptional = repository.findByEmail(email);
-    if (userOptional.isEmpty()) {
-      throw new UsernameNotFoundException("User not found with email: " + email);
+  /**
+   * The user behind the current request, loaded by primary key when the principal carries the id.
+   * Rejects principals issued before a security-relevant change (roles, email, password reset).
+   */
+  @Transactional(readOnly = true)
+  public UserInfo getCurrentUser(Authentication authentication) {
+    Object principal = authentication.getPrincipal();
+    if (principal instanceof JwtPrincipal jwtPrincipal) {
+      UserInfo user = repository.findById(jwtPrincipal.getUserId())
+          .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + jwtPrincipal.getUserId()));
+      if (user.getSecurityVersion() != jwtPrincipal.getSecurityVersion()) {
+        throw new CredentialsExpiredException("Session is out of date. Please login again.");
+      }
+      return user;
     }
-    
-    UserInfo user = userOptional.get();
-    
+    if (principal instanceof UserInfoDetails details && details.getUserId() != null) {
+      return repository.findById(details.getUserId())
+          .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + details.getUserId()));
+    }
+    return getUserByEmail(authentication.getName());
+  }
+
+  /**
+   * Id of the user behind the current request; no database access for claims-based principals
+   */
+  public int getCurrentUserId(Authentication authentication) {
+    Object principal = authentication.getPrincipal();
+    if (principal instanceof JwtPrincipal jwtPrincipal) {
+      return jwtPrincipal.getUserId();
+    }
+    if (principal instanceof UserInfoDetails details && details.getUserId() != null) {
+      return details.getUserId();
+    }
+    return getUserByEmail(authentication.getName()).getId();
+  }
+  
+  @Transactional
+  public void deleteUser(UserInfo user, DeleteUserRequest request) {
     // Verify password
     if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
       throw new RuntimeException("Password is incorrect");
@@ -198,16 +296,20 @@ public class UserInfoService implements UserDetailsService {
     // Delete all associated data first (cascading deletion)
     
     // 1. Delete all plan drills associated with user's daily plans
-    List<DailyPlan> userPlans = dailyPlanRepository.findByUserOrderByPlanDateDesc(user);
-    for (DailyPlan plan : userPlans) {
-      planDrillRepository.deleteByDailyPlan(plan);
-    }
+    // (bulk statements, since plan history is retained and can be long)
+    planDrillRepository.deleteAllByUser(user);
     
-    // 2. Delete all daily plans for the user
-    dailyPlanRepository.deleteAll(userPlans);
+    // 2. Delete the user's session log, then all daily plans for the user
+    drillSessionEventRepository.deleteByUserId(user.getId());
+    dailyPlanRepository.deleteAllByUser(user);
+    completionCalendarService.deleteForUser(user.getId());
     
     // 3. Finally delete the user
     repository.delete(user);
+    // Claims-based tokens never look the user up, so they stay usable until revoked; applied and broadcast on commit
+    tokenRevocationService.revokeAllTokensForUser(user.getEmail());
+    leaderboardService.remove(user.getId());
+    userDetailsCache.invalidate(user.getEmail());
   }
 
   public UserProfileResponse toUserProfileResponse(UserInfo user) {
@@ -221,160 +323,233 @@ public class UserInfoService implements UserDetailsService {
       user.getPrimaryPosition(),
       user.isProfileCompleted(),
       user.getProfileImageUrl(),
-      getCurrentStreak(user), // Use current streak calculation that accounts for missed days
+      getCurrentStreak(user), // Derived from lastCompletedDate; accounts for missed days without writing
       user.getLastCompletedDate() != null ? user.getLastCompletedDate().toString() : null,
+      zoneOf(user).getId(),
       user.isEmailVerified(),
       user.getEmailVerifiedAt() != null ? user.getEmailVerifiedAt().toString() : null
     );
   }
 
   @Transactional
-  public UserInfo updateProfileImage(String email, String profileImageUrl) {
-    Optional<UserInfo> userOptional = repository.findByEmail(email);
-    if (userOptional.isEmpty()) {
-      throw new UsernameNotFoundException("User not found with email: " + email);
-    }
-    UserInfo user = userOptional.get();
+  public UserInfo updateProfileImage(UserInfo user, String profileImageUrl) {
     user.setProfileImageUrl(profileImageUrl);
     return repository.save(user);
   }
 
+  /**
+   * Record today's completion with a single atomic UPDATE ... RETURNING; no read-modify-write on the entity.
+   * Concurrent completions from two devices are serialized by the row lock, so no update is lost.
+   * Returns the new streak.
+   */
   @Transactional
-  public void updateUserStreak(UserInfo user) {
-    LocalDate today = LocalDate.now();
-    
-    if (user.getLastCompletedDate() == null) {
-      // First time completing a plan
-      user.setStreak(1);
-      user.setLastCompletedDate(today);
-    } else if (user.getLastCompletedDate().equals(today.minusDays(1))) {
-      // Consecutive day - increment streak
-      user.setStreak(user.getStreak() + 1);
-      user.setLastCompletedDate(today);
-    } else if (user.getLastCompletedDate().equals(today)) {
-      // Already completed today - no change
+  public int updateUserStreak(UserInfo user) {
+    LocalDate today = today(user);
+    Integer streak = repository.recordCompletion(user.getId(), today, today.minusDays(1));
+    completionCalendarService.markCompleted(user.getId(), today);
+    int newStreak = streak != null ? streak : 0;
+    leaderboardService.recordStreak(user, newStreak, today);
+    return newStreak;
+  }
+
+  /**
+   * Apply several completion days at once (e.g. an offline sync) and save the user a single time.
+   * Days in the future are ignored. The streak is recomputed from the merged completion calendar,
+   * so a backfilled day can join the runs on either side of it.
+   */
+  @Transactional
+  public void applyCompletionDates(UserInfo user, Collection<LocalDate> completionDates) {
+    LocalDate today = today(user);
+    List<LocalDate> days = completionDates.stream()
+        .filter(Objects::nonNull)
+        .filter(day -> !day.isAfter(today))
+        .distinct()
+        .collect(Collectors.toList());
+    if (days.isEmpty()) {
       return;
-    } else {
-      // Streak broken - reset to 1
-      user.setStreak(1);
-      user.setLastCompletedDate(today);
     }
-    
-    repository.save(user);
+
+    LocalDate lastCompleted = user.getLastCompletedDate();
+    if (lastCompleted != null) {
+      // May predate the calendar; marking it keeps the recomputed run from ending before it
+      days.add(lastCompleted);
+    }
+    completionCalendarService.markCompleted(user.getId(), days);
+    CompletionRun run = completionCalendarService.getLatestRun(user.getId());
+    if (run == null) {
+      return;
+    }
+
+    int oldStreak = user.getStreak() != null ? user.getStreak() : 0;
+    int streak = (int) ChronoUnit.DAYS.between(run.getStart(), run.getEnd()) + 1;
+    if (oldStreak > 0 && lastCompleted != null
+        && !lastCompleted.isBefore(run.getStart()) && !lastCompleted.isAfter(run.getEnd())) {
+      // Days from before the calendar existed are only known through the stored streak
+      streak = Math.max(streak, oldStreak + (int) ChronoUnit.DAYS.between(lastCompleted, run.getEnd()));
+    }
+    if (run.getEnd().isBefore(today.minusDays(1))) {
+      streak = 0; // Latest run already ended; same as the nightly reset would leave it
+    }
+
+    if (streak != oldStreak || !run.getEnd().equals(lastCompleted)) {
+      user.setStreak(streak);
+      user.setLastCompletedDate(run.getEnd());
+      repository.save(user);
+      leaderboardService.recordStreak(user, streak, run.getEnd());
+    }
   }
 
   /**
    * Check and reset broken streaks for all users
-   * This method should be called daily to ensure streaks are accurate
+   * Each user is judged against their own local date, so zones are grouped by UTC offset and every group
+   * gets one set-based UPDATE. Returns the number of streaks reset
    */
   @Transactional
-  public void checkAndResetBrokenStreaks() {
-    LocalDate today = LocalDate.now();
-    List<UserInfo> allUsers = repository.findAll();
-    
-    for (UserInfo user : allUsers) {
-      if (user.getLastCompletedDate() != null && user.getStreak() != null && user.getStreak() > 0) {
-        // Calculate days since last completion
-        long daysSinceLastCompletion = user.getLastCompletedDate().until(today).getDays();
-        
-        // If more than 1 day has passed since last completion, streak is broken
-        if (daysSinceLastCompletion > 1) {
-          user.setStreak(0);
-          repository.save(user);
-        }
+  public int checkAndResetBrokenStreaks() {
+    return streakResetTimer.record(() -> {
+      int resetCount = resetBrokenStreaks(Instant.now(), true);
+      logger.info("Streak check completed: " + resetCount + " broken streaks reset");
+      return resetCount;
+    });
+  }
+
+  /**
+   * Reset broken streaks only for zones whose local date has moved on since any node last processed them.
+   * Called every few minutes by StreakSchedulerService, so each offset bucket is handled shortly after
+   * its own midnight instead of everyone at once, and a zone missed by a skipped tick is caught by the next.
+   */
+  @Transactional
+  public int resetBrokenStreaksAtLocalMidnight(Instant now) {
+    return resetBrokenStreaks(now, false);
+  }
+
+  /**
+   * Group the due zones by their current UTC offset and run one UPDATE per bucket.
+   * Zones sharing an offset share a local date, so one cutoff (local yesterday) serves the whole bucket.
+   * Zones come from the JDK's zone rules, not the user table; a zone nobody uses costs one indexed probe.
+   */
+  private int resetBrokenStreaks(Instant now, boolean allZones) {
+    Map<ZoneOffset, List<String>> buckets = new TreeMap<>();
+    // Per zone, the last cutoff whose reset committed; a zone is due again once its local date moves on
+    Map<String, LocalDate> processedCutoffs = allZones ? Map.of() : streakResetCutoffRepository.findAll().stream()
+        .collect(Collectors.toMap(StreakResetCutoff::getZoneId, StreakResetCutoff::getCutoff));
+    for (Map.Entry<String, ZoneId> zone : KNOWN_ZONES.entrySet()) {
+      ZoneOffset offset = zone.getValue().getRules().getOffset(now);
+      // More than 1 day since last completion (in local days) means the streak is broken
+      LocalDate cutoff = now.atOffset(offset).toLocalDate().minusDays(1);
+      LocalDate processed = processedCutoffs.get(zone.getKey());
+      if (allZones || processed == null || cutoff.isAfter(processed)) {
+        buckets.computeIfAbsent(offset, o -> new ArrayList<>()).add(zone.getKey());
+      }
+    }
+
+    int resetCount = 0;
+    for (Map.Entry<ZoneOffset, List<String>> bucket : buckets.entrySet()) {
+      LocalDate cutoff = now.atOffset(bucket.getKey()).toLocalDate().minusDays(1);
+      boolean includesUnset = bucket.getValue().contains(DEFAULT_ZONE.getId());
+      int bucketCount = meterRegistry.timer("footwork.streaks.reset.bucket", "offset", bucket.getKey().getId())
+          .record(() -> repository.resetStreaksCompletedBeforeInZones(bucket.getValue(), cutoff)
+              + (includesUnset ? repository.resetStreaksCompletedBeforeWithoutTimezone(cutoff) : 0));
+      if (bucketCount > 0) {
+        logger.info("Streak bucket " + bucket.getKey() + " (" + bucket.getValue().size() + " zones): "
+            + bucketCount + " broken streaks reset");
       }
+      // Same transaction as the reset, so a rolled-back run leaves its zones due for the next tick
+      streakResetCutoffRepository.advance(bucket.getValue(), cutoff);
+      resetCount += bucketCount;
     }
+    meterRegistry.counter("footwork.streaks.reset.users").increment(resetCount);
+    return resetCount;
   }
 
   /**
    * Get the current streak for a user, accounting for missed days
-   * This method automatically updates the database if the stored value differs from calculated value
+   * Derived purely from lastCompletedDate; never writes. Stored values that have gone stale
+   * are reconciled in the background by checkAndResetBrokenStreaks.
    */
   public int getCurrentStreak(UserInfo user) {
     if (user.getLastCompletedDate() == null || user.getStreak() == null) {
       return 0;
     }
     
-    LocalDate today = LocalDate.now();
-    long daysSinceLastCompletion = user.getLastCompletedDate().until(today).getDays();
-    
-    // Calculate what the streak should be
-    int calculatedStreak;
-    if (daysSinceLastCompletion > 1) {
-      // Streak is broken - more than 1 day missed
-      calculatedStreak = 0;
-    } else if (daysSinceLastCompletion == 1) {
-      // Only 1 day missed - streak can continue
-      calculatedStreak = user.getStreak();
-    } else {
-      // Same day or 0 days - streak continues
-      calculatedStreak = user.getStreak();
-    }
+    LocalDate today = today(user);
+    long daysSinceLastCompletion = ChronoUnit.DAYS.between(user.getLastCompletedDate(), today);
     
-    // If there's a discrepancy, update the database
-    if (calculatedStreak != user.getStreak()) {
-      logger.info("Streak discrepancy detected for user " + user.getEmail() + 
-                 ": stored=" + user.getStreak() + ", calculated=" + calculatedStreak + 
-                 ", days since completion=" + daysSinceLastCompletion);
-      
-      // Update the database to reflect the current reality
-      user.setStreak(calculatedStreak);
-      repository.save(user);
-      
-      logger.info("Database updated: streak changed from " + user.getStreak() + " to " + calculatedStreak);
-    }
-    
-    return calculatedStreak;
+    // More than 1 day missed means the streak is broken, even if the stored value hasn't been reset yet
+    return daysSinceLastCompletion > 1 ? 0 : user.getStreak();
   }
 
   /**
-   * Get the current streak for a user without updating the database
-   * Use this for read-only operations where you don't want to modify the database
+   * Completion heatmap for a year (defaults to the current year in the user's timezone)
    */
-  public int getCurrentStreakReadOnly(UserInfo user) {
-    if (user.getLastCompletedDate() == null || user.getStreak() == null) {
-      return 0;
+  @Transactional(readOnly = true)
+  public CompletionCalendarResponse getCompletionCalendar(UserInfo user, Integer year) {
+    LocalDate today = today(user);
+    return completionCalendarService.getCalendar(user.getId(), year != null ? year : today.getYear(), today);
+  }
+
+  /**
+   * The user's zone; unknown or missing values fall back to UTC
+   */
+  public ZoneId zoneOf(UserInfo user) {
+    return resolveZone(user.getTimezone());
+  }
+
+  /**
+   * Today's date in the user's own timezone
+   */
+  public LocalDate today(UserInfo user) {
+    return LocalDate.now(zoneOf(user));
+  }
+
+  static ZoneId resolveZone(String timezone) {
+    if (timezone == null || timezone.isBlank()) {
+      return DEFAULT_ZONE;
     }
-    
-    LocalDate today = LocalDate.now();
-    long daysSinceLastCompletion = user.getLastCompletedDate().until(today).getDays();
-    
-    // Calculate what the streak should be
-    if (daysSinceLastCompletion > 1) {
-      // Streak is broken - more than 1 day missed
-      return 0;
-    } else {
-      // Streak can continue
-      return user.getStreak();
+    try {
+      return ZoneId.of(timezone);
+    } catch (DateTimeException e) {
+      return DEFAULT_ZONE;
+    }
+  }
+
+  private String validateTimezone(String timezone) {
+    String id;
+    try {
+      id = ZoneId.of(timezone.trim()).getId();
+    } catch (DateTimeException e) {
+      throw new RuntimeException("Invalid timezone: " + timezone);
+    }
+    // Fixed offsets must be whole quarter hours, like every real zone, so the reset can enumerate them
+    if (!KNOWN_ZONES.containsKey(id)) {
+      throw new RuntimeException("Invalid timezone: " + timezone);
     }
+    return id;
   }
 
   /**
-   * Manually sync all user streaks in the database
-   * This ensures all stored streak values match their calculated values
-   * Useful for admin operations or after system updates
+   * Region ids plus the fixed-offset ids ZoneId.of normalizes to (+05:30, UTC+05:30, GMT+05:30, UT+05:30),
+   * in quarter-hour steps across the full +-18:00 range.
    */
-  @Transactional
-  public int syncAllUserStreaks() {
-    List<UserInfo> allUsers = repository.findAll();
-    int updatedCount = 0;
-    
-    for (UserInfo user : allUsers) {
-      if (user.getLastCompletedDate() != null && user.getStreak() != null) {
-        int calculatedStreak = getCurrentStreakReadOnly(user);
-        
-        if (calculatedStreak != user.getStreak()) {
-          logger.info("Syncing streak for user " + user.getEmail() + 
-                     ": " + user.getStreak() + " → " + calculatedStreak);
-          
-          user.setStreak(calculatedStreak);
-          repository.save(user);
-          updatedCount++;
-        }
+  private static Map<String, ZoneId> knownZones() {
+    Map<String, ZoneId> zones = new TreeMap<>();
+    for (String id : ZoneId.getAvailableZoneIds()) {
+      zones.put(id, ZoneId.of(id));
+    }
+    for (String id : List.of("Z", "UTC", "GMT", "UT")) {
+      zones.put(id, ZoneId.of(id));
+    }
+    for (int minutes = -18 * 60; minutes <= 18 * 60; minutes += 15) {
+      if (minutes == 0) {
+        continue; // Zero offsets normalize to the bare ids above
+      }
+      ZoneOffset offset = ZoneOffset.ofTotalSeconds(minutes * 60);
+      zones.put(offset.getId(), offset);
+      for (String prefix : List.of("UTC", "GMT", "UT")) {
+        ZoneId prefixed = ZoneId.ofOffset(prefix, offset);
+        zones.put(prefixed.getId(), prefixed);
       }
     }
-    
-    logger.info("Streak sync completed: " + updatedCount + " users updated");
-    return updatedCount;
+    return Map.copyOf(zones);
   }
 }
@@ -0,0 +1,72 @@
+package com.footwork.api.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked by JwtService.verify.
+ * Produced once per request and passed along, so nothing downstream parses the token again.
+ */
+public final class VerifiedToken {
+
+    private final String token;
+    private final Claims claims;
+
+    VerifiedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getId() {
+        return claims.getId();
+    }
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public String getTokenType() {
+        return claims.get("tokenType", String.class);
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public Integer getUserId() {
+        return claims.get(JwtService.CLAIM_USER_ID, Integer.class);
+    }
+
+    public String getRoles() {
+        return claims.get(JwtService.CLAIM_ROLES, String.class);
+    }
+
+    public Integer getSecurityVersion() {
+        return claims.get(JwtService.CLAIM_SECURITY_VERSION, Integer.class);
+    }
+
+    public Long getGeneration() {
+        return claims.get(JwtService.CLAIM_GENERATION, Long.class);
+    }
+
+    public boolean isAccessToken() {
+        return "ACCESS".equals(getTokenType());
+    }
+
+    public boolean isRefreshToken() {
+        return "REFRESH".equals(getTokenType());
+    }
+
+    public boolean isExpired() {
+        return getExpiration() != null && getExpiration().before(new Date());
+    }
+}
@@ -0,0 +1,82 @@
+package com.footwork.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified access tokens, keyed by the SHA-256 digest of the token. Keys are digests, but each
+ * cached VerifiedToken still holds the raw token (revocation falls back to it for tokens without a jti), so this
+ * cache holds live bearer tokens and must never be dumped or exposed.
+ * Each entry expires at the token's own exp, so a cached token is never accepted after it would have failed verification.
+ * A hit only skips the signature check and claims parsing; the revocation check still runs on every request.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${app.jwt.verified-cache.max-size:50000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                    long millisLeft = value.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    public VerifiedToken get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    /**
+     * Cache a verified token. Tokens without an expiry are not cached.
+     */
+    public void put(VerifiedToken verifiedToken) {
+        if (verifiedToken.getExpiration() != null && !verifiedToken.isExpired()) {
+            cache.put(digest(verifiedToken.getToken()), verifiedToken);
+        }
+    }
+
+    public void evict(String token) {
+        if (token != null) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
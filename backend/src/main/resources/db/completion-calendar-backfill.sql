@@ -0,0 +1,23 @@
+-- One-time backfill of completion_calendars from completed daily_plans (PostgreSQL).
+-- Run manually after the application has created completion_calendars. Safe to re-run: bits are only ever set.
+
+BEGIN;
+
+INSERT INTO completion_calendars (user_id, calendar_year, days)
+SELECT DISTINCT user_id, EXTRACT(YEAR FROM plan_date)::int, decode(repeat('00', 46), 'hex')
+FROM daily_plans
+WHERE completed
+ON CONFLICT (user_id, calendar_year) DO NOTHING;
+
+DO $$
+DECLARE
+    r record;
+BEGIN
+    FOR r IN SELECT DISTINCT user_id, plan_date FROM daily_plans WHERE completed LOOP
+        UPDATE completion_calendars
+        SET days = set_bit(days, EXTRACT(DOY FROM r.plan_date)::int - 1, 1)
+        WHERE user_id = r.user_id AND calendar_year = EXTRACT(YEAR FROM r.plan_date)::int;
+    END LOOP;
+END $$;
+
+COMMIT;
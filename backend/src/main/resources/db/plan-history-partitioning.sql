@@ -0,0 +1,78 @@
+-- One-time conversion of daily_plans and plan_drills into month-partitioned tables (PostgreSQL 12+).
+-- Run manually during a maintenance window, after the application has added plan_drills.plan_date.
+-- Afterwards PlanPartitionService creates upcoming months and applies retention automatically.
+
+BEGIN;
+
+-- Backfill the partition key on existing drill rows
+UPDATE plan_drills pd SET plan_date = dp.plan_date
+FROM daily_plans dp
+WHERE pd.daily_plan_id = dp.id AND pd.plan_date IS NULL;
+
+ALTER TABLE plan_drills RENAME TO plan_drills_legacy;
+ALTER TABLE daily_plans RENAME TO daily_plans_legacy;
+
+-- Identity columns are not supported on partitioned tables before PostgreSQL 17, so use plain sequences
+CREATE SEQUENCE daily_plans_id_seq;
+SELECT setval('daily_plans_id_seq', COALESCE((SELECT MAX(id) FROM daily_plans_legacy), 0) + 1, false);
+
+CREATE TABLE daily_plans (
+    id               BIGINT  NOT NULL DEFAULT nextval('daily_plans_id_seq'),
+    user_id          INTEGER REFERENCES user_info (id),
+    plan_date        DATE    NOT NULL,
+    user_level       VARCHAR(255),
+    position         VARCHAR(255),
+    session_duration INTEGER,
+    completed        BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, plan_date)
+) PARTITION BY RANGE (plan_date);
+ALTER SEQUENCE daily_plans_id_seq OWNED BY daily_plans.id;
+
+CREATE SEQUENCE plan_drills_id_seq;
+SELECT setval('plan_drills_id_seq', COALESCE((SELECT MAX(id) FROM plan_drills_legacy), 0) + 1, false);
+
+CREATE TABLE plan_drills (
+    id            BIGINT NOT NULL DEFAULT nextval('plan_drills_id_seq'),
+    daily_plan_id BIGINT,
+    drill_id      BIGINT REFERENCES drills (id),
+    drill_type    VARCHAR(255),
+    order_index   INTEGER,
+    duration      INTEGER,
+    section       VARCHAR(255),
+    plan_date     DATE   NOT NULL,
+    PRIMARY KEY (id, plan_date),
+    FOREIGN KEY (daily_plan_id, plan_date) REFERENCES daily_plans (id, plan_date)
+) PARTITION BY RANGE (plan_date);
+ALTER SEQUENCE plan_drills_id_seq OWNED BY plan_drills.id;
+
+CREATE INDEX idx_daily_plans_user_date ON daily_plans (user_id, plan_date);
+CREATE INDEX idx_plan_drills_daily_plan ON plan_drills (daily_plan_id);
+
+-- Create a partition for every month that has data, plus the next two months
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(plan_date), CURRENT_DATE))::date INTO month_start FROM daily_plans_legacy;
+    last_month := (date_trunc('month', CURRENT_DATE) + INTERVAL '2 months')::date;
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS daily_plans_%s PARTITION OF daily_plans FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYY_MM'), month_start, (month_start + INTERVAL '1 month')::date);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS plan_drills_%s PARTITION OF plan_drills FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYY_MM'), month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO daily_plans (id, user_id, plan_date, user_level, position, session_duration, completed)
+SELECT id, user_id, plan_date, user_level, position, session_duration, completed FROM daily_plans_legacy;
+
+INSERT INTO plan_drills (id, daily_plan_id, drill_id, drill_type, order_index, duration, section, plan_date)
+SELECT id, daily_plan_id, drill_id, drill_type, order_index, duration, section, plan_date FROM plan_drills_legacy;
+
+COMMIT;
+
+-- After verifying row counts, drop the legacy tables:
+-- DROP TABLE plan_drills_legacy;
+-- DROP TABLE daily_plans_legacy;
@@ -0,0 +1,105 @@
+package com.footwork.api.benchmark;
+
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.service.JwtService;
+import com.footwork.api.service.RevokedTokenFilter;
+import com.footwork.api.service.TokenRevocationService;
+import com.footwork.api.service.UserInfoDetails;
+import com.footwork.api.service.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of access-token verification in JwtAuthFilter.
+ * - rebuiltParserPerCall: the old path, five parses that each decode the secret and build a new parser
+ * - cachedParserPerCall:  the same five parses with the shared key and parser
+ * - singleVerify:         the current filter path, one verify() and checks on the resulting claims
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.footwork.api.benchmark.JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String EMAIL = "benchmark@footwork.test";
+
+    private String secret;
+    private JwtService jwtService;
+    private UserInfoDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        secret = Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET", secret);
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "revokedTokenFilter",
+            new RevokedTokenFilter(24, 10000, 0.01, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        UserInfo user = new UserInfo();
+        user.setId(1);
+        user.setEmail(EMAIL);
+        user.setPassword("unused");
+        user.setRoles("ROLE_USER");
+        userDetails = new UserInfoDetails(user);
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean rebuiltParserPerCall() {
+        // isRefreshToken, isAccessToken, extractUsername, then validateToken's extractUsername + isTokenExpired
+        boolean refresh = "REFRESH".equals(parseWithNewParser().get("tokenType", String.class));
+        boolean access = "ACCESS".equals(parseWithNewParser().get("tokenType", String.class));
+        String subject = parseWithNewParser().getSubject();
+        boolean sameUser = parseWithNewParser().getSubject().equals(userDetails.getUsername());
+        boolean notExpired = parseWithNewParser().getExpiration().after(new Date());
+        return !refresh && access && subject != null && sameUser && notExpired;
+    }
+
+    @Benchmark
+    public boolean cachedParserPerCall() {
+        return !jwtService.isRefreshToken(token)
+            && jwtService.isAccessToken(token)
+            && jwtService.extractUsername(token) != null
+            && jwtService.validateToken(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean singleVerify() {
+        VerifiedToken verified = jwtService.verify(token);
+        return !verified.isRefreshToken()
+            && verified.isAccessToken()
+            && verified.getSubject() != null
+            && jwtService.validateToken(verified, userDetails);
+    }
+
+    private Claims parseWithNewParser() {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
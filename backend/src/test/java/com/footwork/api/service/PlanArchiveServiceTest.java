@@ -0,0 +1,125 @@
+package com.footwork.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.footwork.api.entity.DailyPlan;
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.repository.DailyPlanRepository;
+import com.footwork.api.repository.DrillSessionEventRepository;
+import com.footwork.api.repository.PlanDrillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlanArchiveServiceTest {
+
+    private static final LocalDate CUTOFF = LocalDate.of(2024, 1, 1);
+
+    private final Map<String, byte[]> files = new TreeMap<>();
+    private DailyPlanRepository dailyPlanRepository;
+    private DrillSessionEventRepository drillSessionEventRepository;
+    private PlanArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        dailyPlanRepository = mock(DailyPlanRepository.class);
+        drillSessionEventRepository = mock(DrillSessionEventRepository.class);
+        service = new PlanArchiveService();
+        ReflectionTestUtils.setField(service, "dailyPlanRepository", dailyPlanRepository);
+        ReflectionTestUtils.setField(service, "planDrillRepository", mock(PlanDrillRepository.class));
+        ReflectionTestUtils.setField(service, "drillSessionEventRepository", drillSessionEventRepository);
+        ReflectionTestUtils.setField(service, "archiveStore", new MapStore());
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "chunkSize", 500);
+    }
+
+    @Test
+    void retriedChunkOverwritesItsFile() throws IOException {
+        when(dailyPlanRepository.findByPlanDateBeforeAndIdGreaterThanOrderByIdAsc(eq(CUTOFF), eq(0L), any()))
+            .thenReturn(List.of(plan(11L), plan(12L)));
+        // The file is stored, then the delete fails; the next run archives the same chunk again
+        when(drillSessionEventRepository.deleteByDailyPlanIdIn(List.of(11L, 12L)))
+            .thenThrow(new RuntimeException("connection reset"))
+            .thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> service.archivePlansOlderThan(CUTOFF));
+        assertEquals(2, service.archivePlansOlderThan(CUTOFF));
+
+        assertEquals(List.of("plan-archive/user-7/0000000000000000011-0000000000000000012.ndjson.gz"),
+            List.copyOf(files.keySet()));
+        assertEquals(2, userArchive().lines().count());
+    }
+
+    @Test
+    void olderRunIdKeysStillStreamFirst() throws IOException {
+        files.put("plan-archive/user-7/0001700000000000000-0000000000000000050.ndjson.gz", gzip("old\n"));
+        files.put("plan-archive/user-7/0000000000000000060-0000000000000000080.ndjson.gz", gzip("new\n"));
+
+        assertEquals("old\nnew\n", userArchive());
+    }
+
+    private String userArchive() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.streamUserArchive(7, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static DailyPlan plan(long id) {
+        UserInfo user = new UserInfo();
+        user.setId(7);
+        DailyPlan plan = new DailyPlan();
+        plan.setId(id);
+        plan.setUser(user);
+        plan.setPlanDate(CUTOFF.minusDays(30));
+        return plan;
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private final class MapStore implements PlanArchiveStore {
+        @Override
+        public void put(String key, byte[] content) {
+            files.put(key, content);
+        }
+
+        @Override
+        public List<String> list(String prefix) {
+            return files.keySet().stream()
+                .filter(key -> key.startsWith(prefix + "/"))
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        public InputStream open(String key) {
+            return new ByteArrayInputStream(files.get(key));
+        }
+    }
+}
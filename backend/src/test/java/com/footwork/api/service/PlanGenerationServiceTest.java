@@ -0,0 +1,71 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.CompletionSyncEntry;
+import com.footwork.api.entity.DailyPlan;
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.repository.DailyPlanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlanGenerationServiceTest {
+
+    private static final LocalDate PLAN_DATE = LocalDate.of(2024, 3, 9);
+
+    private DailyPlanRepository dailyPlanRepository;
+    private UserInfoService userInfoService;
+    private PlanGenerationService service;
+    private UserInfo user;
+    private DailyPlan plan;
+
+    @BeforeEach
+    void setUp() {
+        dailyPlanRepository = mock(DailyPlanRepository.class);
+        userInfoService = mock(UserInfoService.class);
+        service = new PlanGenerationService();
+        ReflectionTestUtils.setField(service, "dailyPlanRepository", dailyPlanRepository);
+        ReflectionTestUtils.setField(service, "userInfoService", userInfoService);
+
+        user = new UserInfo();
+        user.setId(7);
+        user.setTimezone("America/New_York");
+        plan = new DailyPlan();
+        plan.setId(42L);
+        plan.setUser(user);
+        plan.setPlanDate(PLAN_DATE);
+        when(dailyPlanRepository.findByUserAndIdInOrPlanDateIn(eq(user), anyCollection(), anyCollection()))
+            .thenReturn(List.of(plan));
+        when(dailyPlanRepository.markCompleted(any())).thenReturn(1);
+    }
+
+    @Test
+    void lateNightOfflineCompletionCountsForThePlanDay() {
+        // Started the evening of the 9th, finished after local midnight, synced the next morning
+        CompletionSyncEntry entry = new CompletionSyncEntry(42L, null, LocalDateTime.of(2024, 3, 10, 0, 25));
+
+        service.syncCompletions(user, List.of(entry));
+
+        verify(userInfoService).applyCompletionDates(user, List.of(PLAN_DATE));
+    }
+
+    @Test
+    void completionTimestampDoesNotMoveTheCreditedDay() {
+        // A device clock in another zone (or simply wrong) must not credit some other day either
+        CompletionSyncEntry entry = new CompletionSyncEntry(null, PLAN_DATE, LocalDateTime.of(2024, 3, 7, 23, 0));
+
+        service.syncCompletions(user, List.of(entry));
+
+        verify(userInfoService).applyCompletionDates(user, List.of(PLAN_DATE));
+    }
+}
@@ -0,0 +1,103 @@
+package com.footwork.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs partition maintenance against a real Postgres, since the catalog behaviour is what matters here.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PlanPartitionServiceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 1);
+
+    private JdbcTemplate jdbcTemplate;
+    private PlanPartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Same shape as db/plan-history-partitioning.sql, minus the references to other tables
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+        jdbcTemplate.execute("CREATE TABLE daily_plans (id BIGINT NOT NULL, plan_date DATE NOT NULL, " +
+            "PRIMARY KEY (id, plan_date)) PARTITION BY RANGE (plan_date)");
+        jdbcTemplate.execute("CREATE TABLE plan_drills (id BIGINT NOT NULL, daily_plan_id BIGINT, plan_date DATE NOT NULL, " +
+            "PRIMARY KEY (id, plan_date), FOREIGN KEY (daily_plan_id, plan_date) REFERENCES daily_plans (id, plan_date)) " +
+            "PARTITION BY RANGE (plan_date)");
+
+        service = new PlanPartitionService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+
+        service.createMonthPartitions(MONTH);
+        service.createMonthPartitions(MONTH.plusMonths(1));
+        jdbcTemplate.update("INSERT INTO daily_plans (id, plan_date) VALUES (1, '2024-01-15'), (2, '2024-02-15')");
+        jdbcTemplate.update("INSERT INTO plan_drills (id, daily_plan_id, plan_date) VALUES (1, 1, '2024-01-15'), (2, 2, '2024-02-15')");
+    }
+
+    @Test
+    void detachMonthKeepsRowsInStandaloneTables() {
+        service.detachMonth(MONTH);
+
+        assertEquals(1, service.listMonthPartitions().size());
+        assertFalse(service.listMonthPartitions().contains(MONTH));
+        assertEquals(1, count("daily_plans_2024_01"));
+        assertEquals(1, count("plan_drills_2024_01"));
+        assertEquals(1, count("daily_plans"));
+        assertEquals(1, count("plan_drills"));
+    }
+
+    @Test
+    void detachMonthPointsArchivedDrillsAtArchivedPlans() {
+        service.detachMonth(MONTH);
+
+        String referenced = jdbcTemplate.queryForObject(
+            "SELECT confrelid::regclass::text FROM pg_constraint WHERE contype = 'f' AND conrelid = 'plan_drills_2024_01'::regclass",
+            String.class);
+        assertEquals("daily_plans_2024_01", referenced);
+        assertThrows(Exception.class, () -> jdbcTemplate.update(
+            "INSERT INTO plan_drills_2024_01 (id, daily_plan_id, plan_date) VALUES (3, 99, '2024-01-20')"));
+    }
+
+    @Test
+    void detachMonthIsAllOrNothing() {
+        // A drills partition without its plans partition: the plans detach fails and must undo the drills detach
+        jdbcTemplate.execute("CREATE TABLE plan_drills_2024_03 PARTITION OF plan_drills FOR VALUES FROM ('2024-03-01') TO ('2024-04-01')");
+
+        assertThrows(Exception.class, () -> service.detachMonth(YearMonth.of(2024, 3)));
+        assertTrue(isAttached("plan_drills_2024_03"));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private boolean isAttached(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_inherits WHERE inhrelid = ?::regclass", Integer.class, table);
+        return count != null && count > 0;
+    }
+}
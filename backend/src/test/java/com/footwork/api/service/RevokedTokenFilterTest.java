@@ -0,0 +1,148 @@
+package com.footwork.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevokedTokenFilterTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = 24 * HOUR;
+    private static final long START = 1_000 * DAY; // A slice boundary
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private RevokedTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RevokedTokenFilter(24, 1000, 0.01, meterRegistry, clock);
+    }
+
+    @Test
+    void addedIdIsFoundInItsExpirySlice() {
+        filter.add("jti-1", START + HOUR);
+
+        assertTrue(filter.mightContain("jti-1", START + HOUR));
+        // Any expiry in the same window maps to the same slice
+        assertTrue(filter.mightContain("jti-1", START + 23 * HOUR));
+    }
+
+    @Test
+    void onlyTheExpirySliceIsProbed() {
+        filter.add("jti-1", START + HOUR);
+
+        assertFalse(filter.mightContain("jti-1", START + DAY + HOUR));
+        assertFalse(filter.mightContain("jti-1", START + 5 * DAY));
+    }
+
+    @Test
+    void sizesSlicesFromExpectedCountAndRate() {
+        // m = -n ln p / (ln 2)^2 = 9586 bits for n = 1000, p = 0.01
+        filter.add("jti-1", START + HOUR);
+        assertEquals(9586 / 8, filter.memoryBytes());
+
+        filter.add("jti-2", START + DAY + HOUR);
+        assertEquals(2 * (9586 / 8), filter.memoryBytes());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        for (int i = 0; i < 1000; i++) {
+            filter.add("revoked-" + i, START + HOUR);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("revoked-" + i, START + HOUR));
+        }
+
+        int falsePositives = 0;
+        int probes = 20_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString(), START + HOUR)) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.02, "observed false positive rate " + observed);
+
+        double estimated = filter.estimatedFalsePositiveRate();
+        assertTrue(estimated > 0.005 && estimated < 0.015, "estimated false positive rate " + estimated);
+    }
+
+    @Test
+    void slicesAreDroppedOnceTheirWindowHasPassed() {
+        filter.add("today", START + HOUR);
+        filter.add("tomorrow", START + DAY + HOUR);
+
+        clock.set(START + DAY + 1);
+        assertFalse(filter.mightContain("today", START + HOUR));
+        assertTrue(filter.mightContain("tomorrow", START + DAY + HOUR));
+        assertEquals(9586 / 8, filter.memoryBytes());
+        assertEquals(1.0, meterRegistry.get("footwork.jwt.revocation.bloom.slices").gauge().value());
+    }
+
+    @Test
+    void idsAlreadyExpiredAreNotAdded() {
+        filter.add("expired", START - HOUR);
+
+        assertEquals(0, filter.memoryBytes());
+        assertFalse(filter.mightContain("expired", START - HOUR));
+    }
+
+    @Test
+    void countsChecksAndFalsePositives() {
+        filter.add("jti-1", START + HOUR);
+
+        filter.mightContain("jti-1", START + HOUR);
+        filter.mightContain("jti-2", START + DAY + HOUR);
+        filter.recordFalsePositive();
+
+        assertEquals(1.0, meterRegistry.get("footwork.jwt.revocation.bloom.checks").tag("result", "positive").counter().count());
+        assertEquals(1.0, meterRegistry.get("footwork.jwt.revocation.bloom.checks").tag("result", "negative").counter().count());
+        assertEquals(1.0, meterRegistry.get("footwork.jwt.revocation.bloom.false.positives").counter().count());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
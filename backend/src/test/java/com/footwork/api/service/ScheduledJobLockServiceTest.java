@@ -0,0 +1,172 @@
+package com.footwork.api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lock services on separate data sources stand in for nodes sharing one Postgres.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ScheduledJobLockServiceTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private ScheduledJobLockService nodeA;
+    private ScheduledJobLockService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource());
+        // Same shape Hibernate generates from ScheduledJobRun
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduled_job_runs (id BIGSERIAL PRIMARY KEY, " +
+            "job_name VARCHAR(255) NOT NULL, tick BIGINT NOT NULL, " +
+            "CONSTRAINT uk_scheduled_job_runs_job_tick UNIQUE (job_name, tick))");
+        jdbcTemplate.execute("TRUNCATE scheduled_job_runs");
+        nodeA = lockService();
+        nodeB = lockService();
+    }
+
+    @Test
+    void secondNodeSkipsWhileFirstHoldsTheLock() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> first = executor.submit(() -> nodeA.runExclusively("job", () -> {
+                started.countDown();
+                await(release);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            AtomicInteger secondRuns = new AtomicInteger();
+            assertFalse(nodeB.runExclusively("job", secondRuns::incrementAndGet));
+            assertEquals(0, secondRuns.get());
+
+            release.countDown();
+            assertTrue(first.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Released on completion, so the other node wins the next tick
+        AtomicInteger nextRuns = new AtomicInteger();
+        assertTrue(nodeB.runExclusively("job", nextRuns::incrementAndGet));
+        assertEquals(1, nextRuns.get());
+    }
+
+    @Test
+    void differentJobsDoNotContend() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> nodeA.runExclusively("job-a", () -> {
+                started.countDown();
+                await(release);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            assertTrue(nodeB.runExclusively("job-b", () -> { }));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void lockIsReleasedWhenTheTaskThrows() {
+        assertThrows(IllegalStateException.class, () -> nodeA.runExclusively("job", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertTrue(nodeB.runExclusively("job", () -> { }));
+    }
+
+    @Test
+    void tickAlreadyRunElsewhereIsSkipped() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(nodeA.runTick("job", 60_000L, runs::incrementAndGet));
+        // Lock is free again, but the tick is taken
+        assertFalse(nodeB.runTick("job", 60_000L, runs::incrementAndGet));
+        assertTrue(nodeB.runTick("job", 120_000L, runs::incrementAndGet));
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void jitteredRunnersRunAnInstantJobOncePerTick() throws Exception {
+        Instant firstTick = Instant.parse("2024-01-01T03:00:00Z");
+        AtomicInteger executions = new AtomicInteger();
+
+        // Fired just after the minute, as cron + scheduler latency would; jitter spreads the lock attempts
+        runAllNodes(Clock.fixed(firstTick.plusMillis(150), ZoneOffset.UTC), executions::incrementAndGet);
+        assertEquals(1, executions.get());
+
+        runAllNodes(Clock.fixed(firstTick.plusSeconds(60).plusMillis(40), ZoneOffset.UTC), executions::incrementAndGet);
+        assertEquals(2, executions.get());
+    }
+
+    /**
+     * Three nodes fire the same tick together, each with up to a second of jitter and an instant task
+     */
+    private void runAllNodes(Clock clock, Runnable task) throws Exception {
+        List<ScheduledJobRunner> runners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            runners.add(new ScheduledJobRunner(lockService(), new SimpleMeterRegistry(), 1000, clock));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(runners.size());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ScheduledJobRunner runner : runners) {
+                futures.add(executor.submit(() -> runner.runClustered("shared-job", task)));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ScheduledJobLockService lockService() {
+        return new ScheduledJobLockService(dataSource(), new SimpleMeterRegistry(), true);
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.StreakSyncJobStatus;
+import com.footwork.api.repository.UserInfoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The cluster lock is stubbed: ScheduledJobLockServiceTest covers the Postgres side.
+ */
+class StreakSyncJobServiceTest {
+
+    private UserInfoRepository userInfoRepository;
+    private ScheduledJobLockService jobLockService;
+    private StreakSyncJobService service;
+
+    @BeforeEach
+    void setUp() {
+        userInfoRepository = mock(UserInfoRepository.class);
+        when(userInfoRepository.findStreakUserIdsAfter(anyInt(), any())).thenReturn(List.of());
+        jobLockService = mock(ScheduledJobLockService.class);
+        service = new StreakSyncJobService(userInfoRepository, mock(LeaderboardService.class),
+            mock(TransactionTemplate.class), jobLockService, new SimpleMeterRegistry(), 100, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void startIsRejectedWhileAnotherNodeHoldsTheLock() {
+        when(jobLockService.runExclusively(eq("streak-sync"), any())).thenReturn(false);
+
+        StreakSyncJobService.JobAlreadyRunningException e =
+            assertThrows(StreakSyncJobService.JobAlreadyRunningException.class, service::start);
+        assertNull(e.getJobId());
+
+        // Nothing was left behind on this node: once the lock frees up, a job starts
+        allowLock();
+        assertNotNull(service.start().getJobId());
+    }
+
+    @Test
+    void jobRunsUnderTheLock() throws Exception {
+        allowLock();
+
+        StreakSyncJobStatus started = service.start();
+
+        assertTrue(awaitStatus(started.getJobId(), "COMPLETED"));
+        assertEquals(0, service.getStatus(started.getJobId()).getProcessedUsers());
+    }
+
+    @Test
+    void secondStartOnTheSameNodeGetsTheRunningJobsId() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userInfoRepository.countByStreakGreaterThan(0)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return 0L;
+        });
+        allowLock();
+
+        StreakSyncJobStatus running = service.start();
+        StreakSyncJobService.JobAlreadyRunningException e =
+            assertThrows(StreakSyncJobService.JobAlreadyRunningException.class, service::start);
+        assertEquals(running.getJobId(), e.getJobId());
+        release.countDown();
+    }
+
+    private void allowLock() {
+        when(jobLockService.runExclusively(eq("streak-sync"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    private boolean awaitStatus(String jobId, String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (status.equals(service.getStatus(jobId).getStatus())) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+}
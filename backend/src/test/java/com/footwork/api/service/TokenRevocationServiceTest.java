@@ -0,0 +1,126 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.UserInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two nodes share one store. Cluster notifications are off, which is the extreme of a delayed NOTIFY:
+ * node B only learns about node A's revocations through the store.
+ */
+class TokenRevocationServiceTest {
+
+    private static final String EMAIL = "player@example.com";
+
+    private TokenRevocationService revocationA;
+    private TokenRevocationService revocationB;
+    private JwtService jwtA;
+    private JwtService jwtB;
+
+    @BeforeEach
+    void setUp() {
+        SharedStore store = new SharedStore();
+        revocationA = revocationService(store);
+        revocationB = revocationService(store);
+        jwtA = jwtService(revocationA);
+        jwtB = jwtService(revocationB);
+    }
+
+    @Test
+    void tokenIssuedBeforeTheNotificationArrivesCarriesTheNewGeneration() {
+        revocationA.revokeAllTokensForUser(EMAIL);
+        long generation = revocationA.getTokenGeneration(EMAIL);
+        assertEquals(0L, revocationB.getTokenGeneration(EMAIL)); // B has not heard yet
+
+        VerifiedToken issuedOnB = jwtB.verify(jwtB.generateToken(details()));
+
+        assertEquals(generation, issuedOnB.getGeneration());
+        // Usable on the node that revoked, not rejected as pre-revocation
+        assertTrue(jwtA.isUsable(issuedOnB));
+        assertTrue(jwtB.isUsable(issuedOnB));
+    }
+
+    @Test
+    void issuingOnALaggingNodeCatchesItsFrontUp() {
+        VerifiedToken beforeRevoke = jwtB.verify(jwtB.generateToken(details()));
+        revocationA.revokeAllTokensForUser(EMAIL);
+        assertTrue(jwtB.isUsable(beforeRevoke)); // Stale until B hears about it
+
+        jwtB.verify(jwtB.generateRefreshToken(EMAIL));
+
+        assertFalse(jwtB.isUsable(beforeRevoke));
+        assertEquals(revocationA.getTokenGeneration(EMAIL), revocationB.getTokenGeneration(EMAIL));
+    }
+
+    private static UserInfoDetails details() {
+        UserInfo user = new UserInfo();
+        user.setId(7);
+        user.setEmail(EMAIL);
+        user.setRoles("ROLE_USER");
+        return new UserInfoDetails(user);
+    }
+
+    private static TokenRevocationService revocationService(RevocationStore store) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRevocationService service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "verifiedTokenCache", new VerifiedTokenCache(1000, meterRegistry));
+        ReflectionTestUtils.setField(service, "revocationStore", store);
+        ReflectionTestUtils.setField(service, "revokedTokenFilter", new RevokedTokenFilter(24, 1000, 0.01, meterRegistry));
+        ReflectionTestUtils.setField(service, "clusterNotifier", new ClusterNotifier(null, null, false));
+        return service;
+    }
+
+    private static JwtService jwtService(TokenRevocationService tokenRevocationService) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "SECRET", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(service, "tokenRevocationService", tokenRevocationService);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Generations only, with the same advance rule as token_generations
+     */
+    private static final class SharedStore implements RevocationStore {
+        private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+        @Override
+        public void saveRevokedToken(String tokenId, String userEmail, long expiresAt) {
+        }
+
+        @Override
+        public long advanceGeneration(String userEmail, long minimum) {
+            return generations.merge(userEmail, minimum, (current, requested) -> Math.max(requested, current + 1));
+        }
+
+        @Override
+        public long findGeneration(String userEmail) {
+            return generations.getOrDefault(userEmail, 0L);
+        }
+
+        @Override
+        public Map<String, Long> findActiveRevokedTokens(long now) {
+            return Map.of();
+        }
+
+        @Override
+        public Map<String, Long> findGenerationsSince(long since) {
+            return Map.of();
+        }
+
+        @Override
+        public int deleteExpired(long now, long generationsBefore) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.footwork.api.service;
+
+import com.footwork.api.entity.DeleteUserRequest;
+import com.footwork.api.entity.StreakResetCutoff;
+import com.footwork.api.entity.UserInfo;
+import com.footwork.api.filter.JwtAuthFilter;
+import com.footwork.api.repository.DailyPlanRepository;
+import com.footwork.api.repository.DrillSessionEventRepository;
+import com.footwork.api.repository.PlanDrillRepository;
+import com.footwork.api.repository.StreakResetCutoffRepository;
+import com.footwork.api.repository.UserInfoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Persistence is mocked; token issue, revocation, the auth filter and the streak bucketing are the real ones.
+ */
+class UserInfoServiceTest {
+
+    private TokenRevocationService tokenRevocationService;
+    private JwtService jwtService;
+    private JwtAuthFilter jwtAuthFilter;
+    private UserInfoRepository userInfoRepository;
+    private DrillSessionEventRepository drillSessionEventRepository;
+    private StreakResetCutoffRepository streakResetCutoffRepository;
+    private UserInfoService userInfoService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(1000, meterRegistry);
+
+        tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(tokenRevocationService, "revocationStore", new InMemoryRevocationStore());
+        ReflectionTestUtils.setField(tokenRevocationService, "revokedTokenFilter",
+            new RevokedTokenFilter(24, 1000, 0.01, meterRegistry));
+        ReflectionTestUtils.setField(tokenRevocationService, "clusterNotifier", new ClusterNotifier(null, null, false));
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", tokenRevocationService);
+        jwtService.init();
+        jwtAuthFilter = new JwtAuthFilter(jwtService, verifiedTokenCache);
+
+        userInfoRepository = mock(UserInfoRepository.class);
+        drillSessionEventRepository = mock(DrillSessionEventRepository.class);
+        streakResetCutoffRepository = mock(StreakResetCutoffRepository.class);
+        userInfoService = userInfoService();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deletedUsersTokenIsRejected() throws Exception {
+        UserInfo user = new UserInfo();
+        user.setId(7);
+        user.setEmail("deleted@example.com");
+        user.setRoles("ROLE_USER");
+        String token = jwtService.generateToken(new UserInfoDetails(user));
+
+        MockHttpServletResponse before = callApi(token);
+        assertEquals(200, before.getStatus());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+
+        userInfoService.deleteUser(user, new DeleteUserRequest("password", "DELETE MY ACCOUNT"));
+
+        MockHttpServletResponse after = callApi(token);
+        assertEquals(401, after.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(drillSessionEventRepository).deleteByUserId(7);
+    }
+
+    @Test
+    void processedZonesAreSharedThroughTheCutoffTable() {
+        // Stands in for streak_reset_cutoffs: advance keeps the later cutoff per zone
+        Map<String, LocalDate> table = new HashMap<>();
+        when(streakResetCutoffRepository.findAll()).thenAnswer(invocation -> table.entrySet().stream()
+            .map(row -> new StreakResetCutoff(row.getKey(), row.getValue()))
+            .toList());
+        when(streakResetCutoffRepository.advance(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<String> zones = invocation.getArgument(0);
+            LocalDate cutoff = invocation.getArgument(1);
+            zones.forEach(zone -> table.merge(zone, cutoff, (previous, current) -> current.isAfter(previous) ? current : previous));
+            return zones.size();
+        });
+
+        Instant now = Instant.parse("2024-03-10T00:20:00Z");
+        userInfoService.resetBrokenStreaksAtLocalMidnight(now);
+        assertTrue(table.containsKey("UTC"));
+
+        // A fresh instance is another node: it sees the table, not the first node's memory
+        clearInvocations(userInfoRepository);
+        UserInfoService otherNode = userInfoService();
+        otherNode.resetBrokenStreaksAtLocalMidnight(now.plusSeconds(5 * 60));
+        verify(userInfoRepository, never()).resetStreaksCompletedBeforeInZones(anyCollection(), any());
+
+        // Once Tokyo's local date moves on, its bucket is due again and UTC's is not
+        LocalDate tokyoCutoff = LocalDate.of(2024, 3, 10);
+        otherNode.resetBrokenStreaksAtLocalMidnight(Instant.parse("2024-03-10T15:05:00Z"));
+        verify(userInfoRepository).resetStreaksCompletedBeforeInZones(argThat(zones -> zones.contains("Asia/Tokyo")), eq(tokyoCutoff));
+        verify(userInfoRepository, never()).resetStreaksCompletedBeforeInZones(argThat(zones -> zones.contains("UTC")), any());
+        verify(userInfoRepository, never()).resetStreaksCompletedBeforeWithoutTimezone(any());
+        assertEquals(tokyoCutoff, table.get("Asia/Tokyo"));
+    }
+
+    private UserInfoService userInfoService() {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(any(), any())).thenReturn(true);
+        return new UserInfoService(userInfoRepository, mock(DailyPlanRepository.class), mock(PlanDrillRepository.class),
+            drillSessionEventRepository, streakResetCutoffRepository, passwordEncoder, tokenRevocationService,
+            mock(EmailVerificationService.class), mock(CompletionCalendarService.class), mock(LeaderboardService.class),
+            mock(UserDetailsCache.class), new SimpleMeterRegistry());
+    }
+
+    private MockHttpServletResponse callApi(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtAuthFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}